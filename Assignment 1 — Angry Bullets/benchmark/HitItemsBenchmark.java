@@ -0,0 +1,61 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the collision check of the Angry Bullets game, with an increasing number of rectangles
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HitItemsBenchmark {
+    private static final int BALL_POSITIONS = 1024; // number of ball positions checked in one call of the benchmark
+
+    @Param({"5", "50", "500"})
+    public int numberOfItems; // number of rectangles
+
+    private double[][] items; // rectangles as {x, y, width, height}
+    private double[] ballX, ballY; // ball positions on the 1600 x 800 screen
+
+    /**
+     * Generate random rectangles and ball positions
+     */
+    @Setup(Level.Trial)
+    public void createItems() {
+        Random random = new Random(42);
+        items = new double[numberOfItems][];
+        for(int i = 0; i < numberOfItems; i++)
+            items[i] = new double[] {random.nextInt(1500), random.nextInt(700), 20 + random.nextInt(60), 20 + random.nextInt(100)};
+
+        ballX = new double[BALL_POSITIONS];
+        ballY = new double[BALL_POSITIONS];
+        for(int i = 0; i < BALL_POSITIONS; i++) {
+            ballX[i] = random.nextDouble() * 1600;
+            ballY[i] = random.nextDouble() * 800;
+        }
+    }
+
+    @Benchmark
+    public int hitItems() {
+        int hits = 0;
+        for(int i = 0; i < BALL_POSITIONS; i++)
+            if(BerkSel.hitItems(ballX[i], ballY[i], items))
+                hits++;
+        return hits;
+    }
+}
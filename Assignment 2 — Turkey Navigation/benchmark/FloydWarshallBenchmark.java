@@ -0,0 +1,73 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the Floyd-Warshall loop of the Turkey Navigation program, on random road maps of increasing size
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FloydWarshallBenchmark {
+    @Param({"81", "200", "500"})
+    public int numberOfCities; // size of the generated map, 81 is the number of cities in Turkey
+
+    private double[][] roadDistance; // direct road lengths, a very big number if there is no road
+    private int[][] roadSecondCity; // second cities of the direct roads
+
+    /**
+     * Generate a random map where every city has roads to a few random cities
+     */
+    @Setup(Level.Trial)
+    public void createMap() {
+        Random random = new Random(42);
+        ArrayList<City> cities = new ArrayList<>();
+        for(int i = 0; i < numberOfCities; i++)
+            cities.add(new City("City" + i, random.nextInt(2377), random.nextInt(1055)));
+
+        roadDistance = new double[numberOfCities][numberOfCities];
+        roadSecondCity = new int[numberOfCities][numberOfCities];
+        for(int i = 0; i < numberOfCities; i++)
+            for(int j = 0; j < numberOfCities; j++)
+                roadDistance[i][j] = i == j ? 0 : 1000000000;
+
+        for(int i = 0; i < numberOfCities; i++)
+            for(int road = 0; road < 3; road++) {
+                int j = random.nextInt(numberOfCities);
+                if(i == j)
+                    continue;
+                roadDistance[i][j] = roadDistance[j][i] = BerkSel.calculateDistance(cities.get(i), cities.get(j));
+                roadSecondCity[i][j] = j;
+                roadSecondCity[j][i] = i;
+            }
+    }
+
+    @Benchmark
+    public double[][] findShortestPaths() {
+        // the method changes the arrays, so every call starts from a copy of the road map
+        double[][] minDistance = new double[numberOfCities][];
+        int[][] secondCityIndex = new int[numberOfCities][];
+        for(int i = 0; i < numberOfCities; i++) {
+            minDistance[i] = roadDistance[i].clone();
+            secondCityIndex[i] = roadSecondCity[i].clone();
+        }
+        BerkSel.findShortestPaths(minDistance, secondCityIndex);
+        return minDistance;
+    }
+}
@@ -74,20 +74,7 @@ public class BerkSel {
 
 
         // the main algorithm
-        for(int connectorCity = 0; connectorCity < numberOfCities; connectorCity++) {
-            for (int startCity = 0; startCity < numberOfCities; startCity++) {
-                for (int toCity = 0; toCity < numberOfCities; toCity++) {
-                    if (minDistance[startCity][toCity] > minDistance[startCity][connectorCity] + minDistance[connectorCity][toCity]) { // checking if connector can reduce distance
-                        // if we currently have a path from a to b and b to c, we can go from a to c.
-                        minDistance[startCity][toCity] = minDistance[startCity][connectorCity] + minDistance[connectorCity][toCity]; // update the distance
-
-                        // in the current situation, we have to go to connector city first for the shortest path, so the second city of the path is the same as
-                        // the second city of the path to connector city.
-                        secondCityIndex[startCity][toCity] = secondCityIndex[startCity][connectorCity]; // update the path
-                    }
-                }
-            }
-        }
+        findShortestPaths(minDistance, secondCityIndex);
 
         Scanner readConsole = new Scanner(System.in); // scanner reading user inputs from console
 
@@ -185,6 +172,30 @@ public class BerkSel {
    }
 
 
+    /**
+     * finds the shortest paths between all city pairs with the Floyd-Warshall algorithm.
+     * @param minDistance 2D array of the direct road lengths, it is updated to the shortest distances
+     * @param secondCityIndex 2D array of the second cities of the direct roads, it is updated to the second cities of the shortest paths
+     */
+    public static void findShortestPaths(double[][] minDistance, int[][] secondCityIndex) {
+        int numberOfCities = minDistance.length; // number of cities in the distance array.
+        for(int connectorCity = 0; connectorCity < numberOfCities; connectorCity++) {
+            for (int startCity = 0; startCity < numberOfCities; startCity++) {
+                for (int toCity = 0; toCity < numberOfCities; toCity++) {
+                    if (minDistance[startCity][toCity] > minDistance[startCity][connectorCity] + minDistance[connectorCity][toCity]) { // checking if connector can reduce distance
+                        // if we currently have a path from a to b and b to c, we can go from a to c.
+                        minDistance[startCity][toCity] = minDistance[startCity][connectorCity] + minDistance[connectorCity][toCity]; // update the distance
+
+                        // in the current situation, we have to go to connector city first for the shortest path, so the second city of the path is the same as
+                        // the second city of the path to connector city.
+                        secondCityIndex[startCity][toCity] = secondCityIndex[startCity][connectorCity]; // update the path
+                    }
+                }
+            }
+        }
+    }
+
+
     /**
      * finds the index of the corresponding city in cities ArrayList from the city's name
      * @param cityName a string, the city name to be found in cities ArrayList
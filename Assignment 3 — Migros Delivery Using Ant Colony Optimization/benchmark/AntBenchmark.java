@@ -0,0 +1,100 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the hot paths of the ant colony optimization method, on random houses of increasing size
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AntBenchmark {
+    @Param({"100", "1000", "5000"})
+    public int numberOfHouses; // size of the generated input
+
+    private ArrayList<House> houses; // random houses
+    private AntColony colony; // colony for the houses
+    private Ant halfwayAnt; // an ant that visited half of the houses, used to choose the next house
+    private SplittableRandom random; // random numbers of the ants
+
+    /**
+     * Generate the houses and the colony once for every size
+     */
+    @Setup(Level.Trial)
+    public void createColony() {
+        houses = createHouses(numberOfHouses, 42);
+        colony = new AntColony(new AntColonyConfig(1, 1, 0.8, 1.0, 1.6, 0.001, 0.0001, false).withSeed(42), houses);
+        random = new SplittableRandom(42);
+
+        // visit a random half of the houses, the ant is at house 0
+        halfwayAnt = new Ant(colony, new SplittableRandom(7));
+        halfwayAnt.placeAt(0);
+        Random visits = new Random(7);
+        for(int i = 1; i < numberOfHouses; i++)
+            if(visits.nextBoolean())
+                halfwayAnt.visit(i);
+    }
+
+    /**
+     * Create random houses in the unit square
+     * @param numberOfHouses the number of houses
+     * @param seed the seed of the coordinates
+     * @return the houses
+     */
+    static ArrayList<House> createHouses(int numberOfHouses, long seed) {
+        Random random = new Random(seed);
+        ArrayList<House> houses = new ArrayList<>();
+        for(int i = 0; i < numberOfHouses; i++)
+            houses.add(new House(random.nextDouble(), random.nextDouble()));
+        return houses;
+    }
+
+    @Benchmark
+    public int chooseNextHouse() {
+        return halfwayAnt.chooseNextHouse();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public double travel() {
+        Ant ant = new Ant(colony, random.split());
+        ant.travel();
+        return ant.pathLength;
+    }
+
+    @Benchmark
+    public AntColony degradePheromones() {
+        colony.degradePheromones(); // only the scale changes, except when the pheromones are normalized
+        return colony;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public AntColony normalizePheromones() {
+        colony.normalizePheromones(); // the full pass over all edges that degradePheromones does from time to time
+        return colony;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SymmetricMatrix createDistanceMatrix() {
+        return DistanceOracle.createMatrix(HouseSet.of(houses), SymmetricMatrix.FULL);
+    }
+}
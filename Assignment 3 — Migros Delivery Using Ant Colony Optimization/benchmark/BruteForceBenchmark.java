@@ -0,0 +1,66 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the brute force method, on random houses of increasing size
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BruteForceBenchmark {
+    @Param({"8", "10", "12", "14"})
+    public int numberOfHouses; // size of the generated input
+
+    @Param({"false", "true"})
+    public boolean parallel; // whether the brute force method searches on all cores
+
+    private ArrayList<House> houses; // random houses
+    private HouseSet houseSet; // the same houses as coordinate arrays
+    private int[] order; // the houses in their original order, used for the path distance
+
+    /**
+     * Generate the houses once for every size
+     */
+    @Setup(Level.Trial)
+    public void createHouses() {
+        houses = AntBenchmark.createHouses(numberOfHouses, 42);
+        houseSet = HouseSet.of(houses);
+        order = new int[numberOfHouses];
+        for(int i = 0; i < numberOfHouses; i++)
+            order[i] = i;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ArrayList<Integer> solve() {
+        BruteForce.solve(houses, parallel); // every permutation starting from migros that is not skipped
+        return BruteForce.getShortestPath();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double calculatePathDistance() {
+        return BruteForce.calculatePathDistance(order, houses);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double calculatePathDistanceHouseSet() {
+        return BruteForce.calculatePathDistance(order, houseSet);
+    }
+}
@@ -1,112 +1,117 @@
-import java.util.ArrayList;
+import java.util.random.RandomGenerator;
 
 /**
- * The Ant class is responsible for solving the migros delivery problem using the ant colony optimization method
+ * The Ant class represents one ant of an ant colony. The ant travels all houses once and leaves pheromones on its path.
+ * The arrays of an ant are created once and used again in every iteration, so building a path does not create any objects.
  */
 public class Ant {
-    private static double minDistance = Double.MAX_VALUE; // minimum distance of the path
-    private static ArrayList<Integer> shortestPath; // order of the houses to visit
-
-    public static int numberOfHouses; // number of houses
-    public static int iterationCount; // iteration count for the ant colony optimization method
-    public static int antCount; // ant count per iteration
-    public static double degradationFactor; // pheromone degradation factor that will be applied after each iteration
-    public static double alpha; // alpha value for the ant colony optimization method which gives the importance of the pheromone
-    public static double beta; // beta value for the ant colony optimization method which gives the importance of the distance
-    public static double Q; // Q value for the ant colony optimization method which is used to update the pheromones
-    public static double initialPheromone; // initial pheromone value
-
-    public static double[][] pheromones; // pheromone matrix to store the pheromone values of the edges
-    public static double[][] distances; // distance matrix to store the distances between the houses
-    public static double[][] edgeValues; // edge values matrix to store the edge values of the edges which will be used to choose the next house
-
-    public ArrayList<Integer> path; // path of the ant
-    public boolean[] visited; // visited array to label the visited houses
+    private static final SelectionKernel KERNEL = loadKernel(); // the kernel that adds up the edge values of the unvisited houses
+
+    private final AntColony colony; // the colony that the ant belongs to
+    private RandomGenerator random; // random numbers of the ant, which are not shared with other ants
+
+    public final int[] path; // path of the ant, the first house is repeated at the end after the travel
+    private int pathSize; // number of houses in the path so far
     public double pathLength; // length of the path
+    private final long[] unvisited; // bit i % 64 of unvisited[i / 64] is set if house i is not visited yet, it is the visited array of the ant
+    private final double[] prefixSums; // prefixSums[w] is the sum of the edge values of the unvisited houses from 0 to 64 * w + 63
+    private int[] tour; // the path without the repeated house for the local search, created the first time it is needed
 
     /**
-     * Create an ant and initialize the path, visited array, and path length
+     * Create an ant and initialize the path, visited bits, and path length
+     * @param colony the colony that the ant belongs to
+     * @param random the random number generator of the ant
      */
-    public Ant() {
-        this.path = new ArrayList<>(); // path of the ant is initially empty
-        this.visited = createVisitedArray(); // visited array is initially false for all houses
+    public Ant(AntColony colony, RandomGenerator random) {
+        this.colony = colony;
+        this.path = new int[colony.numberOfHouses + 1]; // the ant visits all houses and returns to the first house
+        this.unvisited = new long[(colony.numberOfHouses + 63) >> 6];
+        this.prefixSums = new double[unvisited.length];
+        this.random = random;
+        this.pathSize = 0; // path of the ant is initially empty
         this.pathLength = 0; // path length is initially 0
+        markAllUnvisited();
     }
 
     /**
-     * Initialize the constants for the ant colony optimization method
-     * @param iterationCount the iteration count
-     * @param antCount the ant count
-     * @param degradationFactor the pheromone degradation factor
-     * @param alpha the alpha value
-     * @param beta the beta value
-     * @param initialPheromone the initial pheromone value
-     * @param Q the Q value
-     * @param houses the list of houses
+     * Prepare the ant for a new travel, the arrays are used again
+     * @param random the random number generator of the new travel
      */
-    public static void initializeConstants(int iterationCount, int antCount, double degradationFactor, double alpha, double beta, double initialPheromone, double Q, ArrayList<House> houses) {
-        Ant.numberOfHouses = houses.size(); // set the number of houses in the array list
-        Ant.iterationCount = iterationCount; // set the iteration count for the ant colony optimization method
-        Ant.antCount = antCount; // set the ant count per iteration
-        Ant.degradationFactor = degradationFactor; // set the pheromone degradation factor
-        Ant.alpha = alpha; // set the alpha value
-        Ant.beta = beta; // set the beta value
-        Ant.Q = Q; // set the Q value
-        Ant.initialPheromone = initialPheromone; // set the initial pheromone value
-        Ant.distances = createDistanceMatrix(houses); // create the distance matrix using th array list of houses
-        Ant.pheromones = createPheromoneMatrix(); // create the pheromone matrix with the initial pheromone value
-        Ant.edgeValues = createEdgeValuesMatrix(); // create the edge values matrix
+    void reset(RandomGenerator random) {
+        this.random = random;
+        this.pathSize = 0;
+        this.pathLength = 0;
+        markAllUnvisited();
     }
+
     /**
-     * Create the pheromone matrix with the initial pheromone value
-     * @return the pheromone matrix
+     * Set the bits of all houses, which only takes n / 64 steps
      */
+    private void markAllUnvisited() {
+        int n = colony.numberOfHouses;
+        for(int w = 0; w < unvisited.length; w++)
+            unvisited[w] = n - (w << 6) >= 64 ? -1L : (1L << (n - (w << 6))) - 1; // the last long only has the bits of the remaining houses
+    }
 
-    private static double[][] createPheromoneMatrix() {
-        double[][] pheromones = new double[numberOfHouses][numberOfHouses]; // create a 2D array for the pheromones
-        for (int i = 0; i < numberOfHouses; i++)
-            for (int j = 0; j < numberOfHouses; j++)
-                pheromones[i][j] = initialPheromone; // set the initial pheromone value for all edges
-        return pheromones;
+    /**
+     * Load the vector kernel if it is compiled and the vector module is added, otherwise use the scalar kernel
+     * @return the kernel
+     */
+    private static SelectionKernel loadKernel() {
+        try {
+            return (SelectionKernel) Class.forName("VectorSelectionKernel").getDeclaredConstructor().newInstance();
+        } catch(ReflectiveOperationException | LinkageError e) {
+            return new ScalarSelectionKernel(); // the vector folder is not compiled or --add-modules jdk.incubator.vector is missing
+        }
     }
 
     /**
-     * Create the edge values matrix using the pheromones, alpha, beta, and distances
-     * @return the edge values matrix
+     * Put the ant at a house without choosing it, the benchmarks use it to create an ant in the middle of its travel
+     * @param house the house
      */
-    private static double[][] createEdgeValuesMatrix(){
-        double[][] edgeValues = new double[numberOfHouses][numberOfHouses]; // create a 2D array for the edge values
-        for (int i = 0; i < numberOfHouses; i++)
-            for (int j = 0; j < numberOfHouses; j++)
-                edgeValues[i][j] = Math.pow(pheromones[i][j], alpha) / Math.pow(distances[i][j], beta); // calculate the edge values using the pheromones, alpha, beta, and distances
-        return edgeValues;
+    void placeAt(int house) {
+        path[pathSize++] = house;
+        visit(house);
     }
 
     /**
-     * Create the visited array with all values set to false initially
-     * @return the visited array
+     * Mark a house as visited
+     * @param house the house
      */
+    void visit(int house) {
+        unvisited[house >> 6] &= ~(1L << house); // the shift only uses the lowest 6 bits of the house
+    }
 
-    private boolean[] createVisitedArray() {
-        boolean[] visited = new boolean[numberOfHouses]; // create a boolean array for the visited houses
-        for (int i = 0; i < numberOfHouses; i++)
-            visited[i] = false; // set all values to false initially
-        return visited;
+    /**
+     * Check if a house is visited
+     * @param house the house
+     * @return true if the ant visited the house
+     */
+    private boolean isVisited(int house) {
+        return (unvisited[house >> 6] & (1L << house)) == 0;
     }
 
     /**
-     * Choose the next house to visit based on the edge values
+     * Choose the next house to visit based on the edge values.
+     * If the colony has candidate lists, the ant first tries the nearest houses of the current house
+     * and only looks at all houses when all of the nearest houses are visited.
      * @return the next house to visit
      */
 
-    private int chooseNextHouse() {
-        int currentHouse = path.get(path.size() - 1); // get the current house
-        double sum = 0; // initialize the sum of the edge values
+    int chooseNextHouse() {
+        int currentHouse = path[pathSize - 1]; // get the current house
+        SymmetricMatrix edgeValues = colony.edgeValues; // edge values of the edges which are used to choose the next house
 
-        // we will calculate the sum of the edge values of the unvisited houses
-        for (int i = 0; i < distances.length; i++)
-            if (!visited[i])
-                sum += edgeValues[currentHouse][i]; // add the edge value to the sum if the house is not visited
+        // sometimes the strategy wants the ant to go to the best house directly
+        double exploitation = colony.getConfig().getPheromoneStrategy().getExploitation();
+        if(exploitation > 0 && random.nextDouble() < exploitation)
+            return chooseBestHouse(currentHouse, edgeValues);
+
+        if(colony.candidateLists != null) {
+            int nextHouse = chooseFromCandidates(currentHouse, edgeValues);
+            if(nextHouse != -1)
+                return nextHouse;
+        }
 
         /*
         We want the probability of choosing a house to be proportional to the edge value of the house.
@@ -121,177 +126,184 @@ public class Ant {
         so, after generating a random number, we will subtract the edge value of the house from the random number until the random number is less than or equal to 0.
         at that point, we will choose the house that we are currently at.
 
-         */
+        For many houses, the sums of every 64 houses are added up first (prefix sums). A binary search finds the 64 houses
+        where the random number becomes less than or equal to 0, and only those houses are subtracted one by one.
 
-        double random = Math.random() * sum; // generate a random number between 0 and the sum of the edge values
-        for (int i = 0; i < distances.length; i++)
-            if (!visited[i]) { // if the house is not visited
-                random -= edgeValues[currentHouse][i]; // subtract the edge value of the house from the random number
-                if (random <= 0)
-                    return i; // if the random number is less than or equal to 0, choose the house
-            }
-        return path.getFirst(); // if all are visited, the travel is over, so we can return to first house
-    }
-    /**
-     * Move the ant to the next house
-     */
+         */
 
-    private void moveToNextHouse() {
-        int currentHouse = path.get(path.size() - 1); // get the current house
-        int nextHouse = chooseNextHouse(); // choose the next house using the method we implemented
-        path.add(nextHouse); // add the next house to the path
-        visited[nextHouse] = true; // mark the next house as visited
-        pathLength += distances[currentHouse][nextHouse]; // add the distance between the current house and the next house to the path length
+        if(edgeValues instanceof FullMatrix matrix) // the row is in consecutive memory, so the kernel can read it directly
+            return chooseFromRow(matrix.getValues(), currentHouse * colony.numberOfHouses);
+        return chooseFromMatrix(currentHouse, edgeValues);
     }
 
     /**
-     * Update the pheromones based on the path taken by the ant after the ant's travel
+     * Choose the next house from a row of edge values with the prefix sums of every 64 houses
+     * @param values the array that contains the row of the current house
+     * @param offset the index of the edge value of house 0 in the array
+     * @return the next house to visit
      */
-    private void updatePheromones() {
-        for (int i = 1; i < path.size(); i++) {
-            int currentHouse = path.get(i); // get the current house
-            int previousHouse = path.get(i - 1); // get the previous house
-
-            // we will update the pheromones of the edge between the current house and the previous house
-            pheromones[currentHouse][previousHouse] += Q / pathLength;
-            pheromones[previousHouse][currentHouse] += Q / pathLength;
-
-            // since the pheromones are updated, we will also update the edge values
-            edgeValues[currentHouse][previousHouse] = Math.pow(pheromones[currentHouse][previousHouse], alpha) / Math.pow(distances[currentHouse][previousHouse], beta);
-            edgeValues[previousHouse][currentHouse] = Math.pow(pheromones[previousHouse][currentHouse], alpha) / Math.pow(distances[previousHouse][currentHouse], beta);
+    private int chooseFromRow(double[] values, int offset) {
+        double sum = KERNEL.prefixSums(values, offset, unvisited, prefixSums); // the sum of the edge values of the unvisited houses
+        double random = this.random.nextDouble() * sum; // generate a random number between 0 and the sum of the edge values
+
+        // find the first 64 houses whose prefix sum reaches the random number
+        int low = 0, high = unvisited.length - 1;
+        while(low < high) {
+            int middle = (low + high) >>> 1;
+            if(prefixSums[middle] >= random)
+                high = middle;
+            else
+                low = middle + 1;
+        }
+        while(low < unvisited.length - 1 && unvisited[low] == 0)
+            low++; // a random number of 0 can stop at houses that are all visited
+
+        random -= low > 0 ? prefixSums[low - 1] : 0; // the houses before these 64 houses are already subtracted
+        int last = -1;
+        for(long bits = unvisited[low]; bits != 0; bits &= bits - 1) {
+            last = (low << 6) + Long.numberOfTrailingZeros(bits);
+            random -= values[offset + last]; // subtract the edge value of the house from the random number
+            if(random <= 0)
+                return last; // if the random number is less than or equal to 0, choose the house
         }
+        return last != -1 ? last : path[0]; // rounding can leave a tiny positive number, and if all are visited, we return to the first house
     }
 
     /**
-     * Degrade the pheromones by the degradation factor after each iteration
+     * Choose the next house from a matrix whose rows are not in consecutive memory, one unvisited house at a time
+     * @param currentHouse the current house
+     * @param edgeValues the edge values matrix
+     * @return the next house to visit
      */
-    public static void degradePheromones() {
-        for (int i = 0; i < numberOfHouses; i++)
-            for (int j = 0; j < numberOfHouses; j++){
-                pheromones[i][j] *= degradationFactor; // for each edge, multiply the pheromone value by the degradation factor
-                edgeValues[i][j] = Math.pow(pheromones[i][j], alpha) / Math.pow(distances[i][j], beta); // since the pheromones are updated, we will also update the edge values
+    private int chooseFromMatrix(int currentHouse, SymmetricMatrix edgeValues) {
+        double sum = 0; // initialize the sum of the edge values
+
+        // we will calculate the sum of the edge values of the unvisited houses
+        for(int w = 0; w < unvisited.length; w++)
+            for(long bits = unvisited[w]; bits != 0; bits &= bits - 1)
+                sum += edgeValues.get(currentHouse, (w << 6) + Long.numberOfTrailingZeros(bits));
+
+        double random = this.random.nextDouble() * sum; // generate a random number between 0 and the sum of the edge values
+        for(int w = 0; w < unvisited.length; w++)
+            for(long bits = unvisited[w]; bits != 0; bits &= bits - 1) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                random -= edgeValues.get(currentHouse, i); // subtract the edge value of the house from the random number
+                if(random <= 0)
+                    return i; // if the random number is less than or equal to 0, choose the house
             }
+        return path[0]; // if all are visited, the travel is over, so we can return to first house
     }
 
     /**
-     * Implement the travel of the ant
+     * Choose the unvisited house with the biggest edge value, looking at the nearest houses first if the colony has candidate lists
+     * @param currentHouse the current house
+     * @param edgeValues the edge values matrix
+     * @return the next house to visit
      */
-    public void travel() {
-        // we first need to choose a random house to start the travel
-        // to do this, we will generate a random number between 0 and the number of houses
-        int firstCity = (int) (Math.random() * numberOfHouses); // choose a random house to start the travel
-        path.add(firstCity); // add the first house to the path
-        visited[firstCity] = true; // mark the first house as visited
-
-        // at the end, we will visit all the houses and return to the first house, so path's size will be numberOfHouses + 1
-        while (path.size() < numberOfHouses + 1) {
-            moveToNextHouse(); // move to the next house and update the path length
+    private int chooseBestHouse(int currentHouse, SymmetricMatrix edgeValues) {
+        int bestHouse = -1;
+        if(colony.candidateLists != null) {
+            int[] candidates = colony.candidateLists.getCandidates();
+            int start = colony.candidateLists.getOffset(currentHouse);
+            for(int c = start; c < start + colony.candidateLists.getCandidateCount(); c++)
+                if(!isVisited(candidates[c]) && (bestHouse == -1 || edgeValues.get(currentHouse, candidates[c]) > edgeValues.get(currentHouse, bestHouse)))
+                    bestHouse = candidates[c];
+            if(bestHouse != -1)
+                return bestHouse;
         }
+
+        for(int i = 0; i < colony.numberOfHouses; i++)
+            if(!isVisited(i) && (bestHouse == -1 || edgeValues.get(currentHouse, i) > edgeValues.get(currentHouse, bestHouse)))
+                bestHouse = i;
+        return bestHouse == -1 ? path[0] : bestHouse; // if all are visited, return to the first house
     }
 
     /**
-     * Create the distance matrix using the list of houses
-     * @param houses the list of houses
-     * @return the distance matrix
+     * Choose the next house among the unvisited nearest houses of the current house, in the same way as chooseNextHouse
+     * @param currentHouse the current house
+     * @param edgeValues the edge values matrix
+     * @return the next house to visit, or -1 if all nearest houses are visited
      */
-
-    public static double[][] createDistanceMatrix(ArrayList<House> houses) {
-        double[][] distances = new double[numberOfHouses][numberOfHouses];
-        for(int i = 0; i < numberOfHouses; i++) {
-            for(int j = 0; j < numberOfHouses; j++) {
-                if(i == j)
-                    distances[i][j] = 0; // the distance between the same house is 0
-                else{
-                    House firstHouse = houses.get(i); // get the first house
-                    House secondHouse = houses.get(j); // get the second house
-
-                    // calculate the distance between the two houses using the calculateDistance method and store it in the distance matrix
-                    double distance = House.calculateDistance(firstHouse, secondHouse);
-                    distances[i][j] = distance;
-                }
+    private int chooseFromCandidates(int currentHouse, SymmetricMatrix edgeValues) {
+        int[] candidates = colony.candidateLists.getCandidates();
+        int start = colony.candidateLists.getOffset(currentHouse); // index of the first candidate of the current house
+        int end = start + colony.candidateLists.getCandidateCount();
+
+        double sum = 0; // sum of the edge values of the unvisited candidates
+        int lastUnvisited = -1; // used if the edge values are too small to be chosen by the random number
+        for(int c = start; c < end; c++)
+            if(!isVisited(candidates[c])) {
+                sum += edgeValues.get(currentHouse, candidates[c]);
+                lastUnvisited = candidates[c];
             }
-        }
-        return distances;
+        if(lastUnvisited == -1)
+            return -1; // all candidates are visited
+
+        double random = this.random.nextDouble() * sum;
+        for(int c = start; c < end; c++)
+            if(!isVisited(candidates[c])) {
+                random -= edgeValues.get(currentHouse, candidates[c]);
+                if(random <= 0)
+                    return candidates[c];
+            }
+        return lastUnvisited;
     }
 
-
     /**
-     * Print the results of the ant colony optimization method to the console
-     * @param time the time it takes to find the shortest path
+     * Move the ant to the next house
      */
-    public static void printResults(double time) {
-        // we stored the index of the houses in the path, so we need to add 1 to get the house numbers
-        for(int i = 0; i < shortestPath.size(); i++)
-            shortestPath.set(i, shortestPath.get(i) + 1);
-
-        adjustPermutation(); // adjust the permutation to start and end at migros
-
-        // output the results to the console
-        System.out.println("Method: Ant Colony Optimization Method");
-        System.out.printf("Shortest distance: %.5f\n", minDistance);
-        System.out.println("Shortest path: " + shortestPath);
-        System.out.printf("Time it takes to find the shortest path: %.2f seconds\n", time);
-    }
 
+    private void moveToNextHouse() {
+        int currentHouse = path[pathSize - 1]; // get the current house
+        int nextHouse = chooseNextHouse(); // choose the next house using the method we implemented
+        path[pathSize++] = nextHouse; // add the next house to the path
+        visit(nextHouse); // mark the next house as visited
+        pathLength += colony.distances.get(currentHouse, nextHouse); // add the distance between the current house and the next house to the path length
+    }
 
     /**
-     * Solve the migros delivery problem using the ant colony optimization method
+     * Update the pheromones based on the path taken by the ant after the ant's travel
+     * @param deposit the amount of pheromone every edge of the path gets
      */
-    public static void solve() {
-        for(int i = 0; i < iterationCount; i++) {
-            for(int j = 0; j < antCount; j++) {
-                Ant ant = new Ant(); // create an ant object
-                ant.travel(); // ant will travel
-
-                // after the travel, we will update the pheromones and check if the path is the shortest
-                if(ant.pathLength < minDistance){ // if there is a shorter path
-                    minDistance = ant.pathLength; // update the minimum distance
-                    shortestPath = ant.path; // update the shortest path
-                }
-
-                ant.updatePheromones(); // update the pheromones of the edges that the ant traveled
-            }
-
-            Ant.degradePheromones(); // degrade the pheromones by the degradation factor after each iteration
+    void updatePheromones(double deposit) {
+        for (int i = 1; i < path.length; i++) {
+            int currentHouse = path[i]; // get the current house
+            int previousHouse = path[i - 1]; // get the previous house
+
+            // we will update the pheromones of the edge between the current house and the previous house and its edge value
+            // the matrix is symmetric, so the edge from the previous house to the current house is updated too
+            colony.depositPheromone(currentHouse, previousHouse, deposit);
         }
     }
 
-
     /**
-     * Show the path on the screen after the ant colony optimization method
-     * @param houses the list of houses
+     * Make the path of the ant shorter with the local search after the travel
+     * @param localSearch the local search of the colony
      */
-    public static void showThePath(ArrayList<House> houses) {
-        Screen.initializeScreen(); // initialize the canvas
-        Screen.showPath(shortestPath, houses); // show the path on the screen
-        Screen.drawHouses(houses, 1); // draw the houses on the screen with orange migros
-        StdDraw.show();
-    }
+    void improve(LocalSearch localSearch) {
+        if(tour == null)
+            tour = new int[path.length - 1]; // the first house is not repeated in the tour
+        System.arraycopy(path, 0, tour, 0, tour.length);
 
-    /**
-     * Show the pheromone intensities on the screen
-     * @param houses the list of houses
-     */
-    public static void showPheromoneIntensities(ArrayList<House> houses){
-        Screen.initializeScreen();
-        Screen.showPheromoneIntensities(pheromones, houses);
-        Screen.drawHouses(houses, 2);
-        StdDraw.show();
+        pathLength = localSearch.improve(tour);
+
+        System.arraycopy(tour, 0, path, 0, tour.length); // the colony copies its shortest path, so the path can be changed
+        path[tour.length] = tour[0]; // return to the first house
     }
 
     /**
-     * Adjust the permutation to start and end at migros
+     * Implement the travel of the ant
      */
-    public static void adjustPermutation(){
-        shortestPath.removeLast(); // remove the last house since it exists twice (first and last)
+    public void travel() {
+        // we first need to choose a random house to start the travel
+        // to do this, we will generate a random number between 0 and the number of houses
+        int firstCity = random.nextInt(colony.numberOfHouses); // choose a random house to start the travel
+        path[pathSize++] = firstCity; // add the first house to the path
+        visit(firstCity); // mark the first house as visited
 
-        // adjust the permutation to start and end at migros
-        while(shortestPath.getFirst() != 1) { // while the first house is not migros, remove the last house and add it to the beginning of the permutation
-            int last = shortestPath.removeLast();
-            shortestPath.addFirst(last);
+        // at the end, we will visit all the houses and return to the first house, so path's size will be numberOfHouses + 1
+        while (pathSize < colony.numberOfHouses + 1) {
+            moveToNextHouse(); // move to the next house and update the path length
         }
-
-        // after the while loop, the permutation will start and end at migros, but we need to add migros again.
-        shortestPath.add(1);
     }
 }
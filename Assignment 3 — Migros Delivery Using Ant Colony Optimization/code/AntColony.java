@@ -0,0 +1,785 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+/**
+ * The AntColony class is responsible for solving the migros delivery problem using the ant colony optimization method.
+ * Every colony has its own pheromones and its own shortest path, so many colonies can solve different routes at the same time.
+ */
+public class AntColony {
+    private static final int LOCAL_SEARCH_NEIGHBOURS = 10; // nearest houses used by the local search if the colony has no candidate lists
+    private static final int BRANCHING_CHECK_INTERVAL = 10; // the branching factor is calculated only every this many iterations since it looks at all edges
+    private static final double BRANCHING_LAMBDA = 0.05; // an edge counts for the branching factor if its pheromone is in the top 95% of the range of its house
+    private static final double MIN_PHEROMONE_SCALE = 1e-20; // the stored pheromones are normalized when the scale becomes smaller than this
+
+    private final AntColonyConfig config; // constants of the ant colony optimization method
+    private double minDistance = Double.MAX_VALUE; // minimum distance of the path
+    private int[] shortestPath; // order of the houses to visit, the first house is repeated at the end
+    private double pheromoneScale = 1; // the real pheromone of an edge is the stored pheromone times this scale
+    private int iteration = 0; // number of iterations done so far, it is also used to find the random numbers of the next iteration
+    private int lastImprovement = 0; // the iteration in which the shortest path was found
+    private int solveStart = 0; // the iteration in which the current solve started
+    private boolean resumed = false; // true if the colony is restored from a checkpoint and the next solve continues the solve of the checkpoint
+    private volatile SolverResult bestResult; // the shortest path found so far, other threads can read it while the colony is solving
+    private volatile boolean stopRequested = false; // set by another thread to stop the solve after the current iteration
+    private final List<ImprovementListener> listeners = new CopyOnWriteArrayList<>(); // called when a shorter path is found
+    private final List<IterationListener> iterationListeners = new CopyOnWriteArrayList<>(); // called after every iteration
+    private long depositNanos = 0; // nanoseconds spent leaving pheromones in the current iteration
+    private long evaporationNanos = 0; // nanoseconds spent degrading the pheromones in the current iteration
+    private Ant[] ants; // the ants of the colony, which are used again in every iteration so that their arrays are created once
+
+    final int numberOfHouses; // number of houses
+    final SymmetricMatrix pheromones; // pheromone matrix to store the pheromone values of the edges
+    final DistanceOracle distances; // distances between the houses, a matrix unless the config chooses another distance oracle
+    final SymmetricMatrix heuristics; // distance to the power of -beta for every edge, which never changes during the solve
+    final SymmetricMatrix edgeValues; // edge values matrix to store the edge values of the edges which will be used to choose the next house
+    final CandidateLists candidateLists; // nearest houses of every house, null if the ants choose from all houses
+    final LocalSearch localSearch; // improves the paths of the ants, null if there is no local search
+
+    /**
+     * Create a colony for the given houses
+     * @param config the constants of the ant colony optimization method
+     * @param houses the list of houses
+     */
+    public AntColony(AntColonyConfig config, ArrayList<House> houses) {
+        this(config, HouseSet.of(houses));
+    }
+
+    /**
+     * Create a colony for the given houses without creating an object for every house
+     * @param config the constants of the ant colony optimization method
+     * @param houses the coordinates of the houses
+     */
+    public AntColony(AntColonyConfig config, HouseSet houses) {
+        this.config = config;
+        this.numberOfHouses = houses.size(); // set the number of houses in the set
+        this.distances = DistanceOracle.create(config.getDistanceOracle(), houses, config.getMatrixStorage(), config.getCachedRows()); // find the distances between the houses
+        this.heuristics = createHeuristicsMatrix(); // calculate the distance part of the edge values once
+        this.pheromones = createPheromoneMatrix(); // create the pheromone matrix with the initial pheromone value
+        this.edgeValues = createEdgeValuesMatrix(); // create the edge values matrix
+        this.candidateLists = config.getCandidateCount() > 0 ? new CandidateLists(houses, config.getCandidateCount()) : null; // find the nearest houses of every house
+        this.localSearch = config.getLocalSearch() == 0 ? null
+                : new LocalSearch(distances, candidateLists != null ? candidateLists : new CandidateLists(houses, LOCAL_SEARCH_NEIGHBOURS));
+    }
+
+    /**
+     * Create a colony for the houses of another colony with one house added at the end or one house removed.
+     * The distances, heuristics, pheromones and edge values of the houses that stay are copied, and only the row of a new house is calculated.
+     * The shortest path of the other colony is changed to the new houses and improved with the local search,
+     * so the new colony starts from what the other colony learned.
+     * @param previous the other colony
+     * @param houses the new list of houses
+     * @param removed the index of the removed house in the other colony, or -1 if the last house of the list is new
+     */
+    private AntColony(AntColony previous, ArrayList<House> houses, int removed) {
+        this.config = previous.config;
+        this.numberOfHouses = houses.size();
+        HouseSet set = HouseSet.of(houses);
+        int added = removed < 0 ? numberOfHouses - 1 : -1; // the index of the new house, or -1 if a house is removed
+
+        int[] oldIndex = new int[numberOfHouses]; // oldIndex[i] is the index of house i in the other colony, -1 for the new house
+        for(int i = 0; i < numberOfHouses; i++)
+            oldIndex[i] = i == added ? -1 : (removed >= 0 && i >= removed ? i + 1 : i);
+
+        if(config.getDistanceOracle() == DistanceOracle.MATRIX) {
+            SymmetricMatrix matrix = copyMatrix((SymmetricMatrix) previous.distances, oldIndex);
+            if(added >= 0) {
+                double[] row = new double[numberOfHouses];
+                set.fillDistanceRow(added, row, 0, numberOfHouses); // only the distances of the new house are calculated
+                for(int j = 0; j < numberOfHouses; j++)
+                    matrix.set(added, j, row[j]);
+            }
+            this.distances = matrix;
+        }
+        else
+            this.distances = DistanceOracle.create(config.getDistanceOracle(), set, config.getMatrixStorage(), config.getCachedRows()); // they keep no matrix
+
+        this.heuristics = copyMatrix(previous.heuristics, oldIndex);
+        this.pheromones = copyMatrix(previous.pheromones, oldIndex);
+        this.pheromoneScale = previous.pheromoneScale;
+        this.edgeValues = copyMatrix(previous.edgeValues, oldIndex); // the stored pheromones and their scale did not change, so neither did the edge values
+        if(added >= 0) {
+            // the new house gets the pheromones of its nearest house, which is where the ants will most likely visit it
+            int nearest = 0;
+            for(int j = 1; j < added; j++)
+                if(distances.get(added, j) < distances.get(added, nearest))
+                    nearest = j;
+            double strongest = 0;
+            for(int j = 0; j < added; j++) {
+                heuristics.set(added, j, Math.pow(distances.get(added, j), -config.getBeta()));
+                if(j != nearest) {
+                    pheromones.set(added, j, previous.pheromones.get(nearest, j));
+                    strongest = Math.max(strongest, pheromones.get(added, j));
+                }
+            }
+            pheromones.set(added, nearest, added > 1 ? strongest : config.getInitialPheromone() / pheromoneScale); // the edge to the nearest house is one of the strongest
+            pheromones.set(added, added, config.getInitialPheromone() / pheromoneScale);
+            heuristics.set(added, added, Math.pow(distances.get(added, added), -config.getBeta()));
+            for(int j = 0; j <= added; j++)
+                edgeValues.set(added, j, calculateEdgeValue(added, j));
+        }
+
+        this.candidateLists = config.getCandidateCount() > 0 ? new CandidateLists(set, config.getCandidateCount()) : null;
+        CandidateLists neighbours = candidateLists != null ? candidateLists : new CandidateLists(set, LOCAL_SEARCH_NEIGHBOURS);
+        this.localSearch = config.getLocalSearch() == 0 ? null : new LocalSearch(distances, neighbours);
+        this.iteration = previous.iteration; // the next iterations get new random numbers
+        this.lastImprovement = iteration;
+        this.listeners.addAll(previous.listeners);
+        this.iterationListeners.addAll(previous.iterationListeners);
+
+        if(previous.shortestPath != null && numberOfHouses > 1)
+            startFrom(previous.shortestPath, oldIndex, added, neighbours);
+    }
+
+    /**
+     * Create a colony for the houses of this colony and one more house, which keeps what this colony learned.
+     * Solving the new colony with a few iterations is usually enough, since it starts from the shortest path of this colony.
+     * @param houses the new list of houses, which is the list of this colony with the new house added at the end
+     * @return the new colony
+     */
+    public AntColony withHouseAdded(ArrayList<House> houses) {
+        if(houses.size() != numberOfHouses + 1)
+            throw new IllegalArgumentException("The colony has " + numberOfHouses + " houses, so the new list should have " + (numberOfHouses + 1) + " but it has " + houses.size());
+        return new AntColony(this, houses, -1);
+    }
+
+    /**
+     * Create a colony for the houses of this colony without one house, which keeps what this colony learned.
+     * Solving the new colony with a few iterations is usually enough, since it starts from the shortest path of this colony.
+     * @param houses the new list of houses, which is the list of this colony with the house removed
+     * @param removed the index of the removed house, migros cannot be removed
+     * @return the new colony
+     */
+    public AntColony withHouseRemoved(ArrayList<House> houses, int removed) {
+        if(removed < 1 || removed >= numberOfHouses)
+            throw new IllegalArgumentException("House " + removed + " cannot be removed from a colony of " + numberOfHouses + " houses");
+        if(houses.size() != numberOfHouses - 1)
+            throw new IllegalArgumentException("The colony has " + numberOfHouses + " houses, so the new list should have " + (numberOfHouses - 1) + " but it has " + houses.size());
+        return new AntColony(this, houses, removed);
+    }
+
+    /**
+     * Copy the values of the houses that stay from a matrix of the other colony
+     * @param old the matrix of the other colony
+     * @param oldIndex the index of every house in the other colony, -1 for a new house whose values stay 0
+     * @return the new matrix
+     */
+    private SymmetricMatrix copyMatrix(SymmetricMatrix old, int[] oldIndex) {
+        SymmetricMatrix matrix = SymmetricMatrix.create(config.getMatrixStorage(), numberOfHouses);
+        for(int i = 0; i < numberOfHouses; i++)
+            if(oldIndex[i] >= 0)
+                for(int j = 0; j <= i; j++)
+                    if(oldIndex[j] >= 0)
+                        matrix.set(i, j, old.get(oldIndex[i], oldIndex[j]));
+        return matrix;
+    }
+
+    /**
+     * Change the shortest path of the other colony to the new houses and make it the shortest path of this colony.
+     * A removed house is skipped and a new house is put where it makes the path the least longer,
+     * then the local search starts from the houses around the change.
+     * @param oldTour the shortest tour of the other colony, the first house is repeated at the end
+     * @param oldIndex the index of every house in the other colony, -1 for the new house
+     * @param added the index of the new house, or -1 if a house is removed
+     * @param neighbours the nearest houses of every house
+     */
+    private void startFrom(int[] oldTour, int[] oldIndex, int added, CandidateLists neighbours) {
+        int[] newIndex = new int[oldTour.length]; // newIndex[old index] is the index in this colony, -1 for the removed house
+        Arrays.fill(newIndex, -1);
+        for(int i = 0; i < numberOfHouses; i++)
+            if(oldIndex[i] >= 0)
+                newIndex[oldIndex[i]] = i;
+
+        int[] tour = new int[numberOfHouses];
+        int length = 0;
+        int removedPosition = -1; // the position in the new tour where the removed house was
+        for(int k = 0; k < oldTour.length - 1; k++) { // the last house is the same as the first one
+            int house = newIndex[oldTour[k]];
+            if(house >= 0)
+                tour[length++] = house;
+            else
+                removedPosition = length;
+        }
+
+        int[] changed = new int[3]; // the houses around the change, which the local search checks first
+        int changedCount = 0;
+        if(removedPosition >= 0) { // the houses before and after the removed house are now neighbours
+            changed[changedCount++] = tour[(removedPosition - 1 + length) % length];
+            changed[changedCount++] = tour[removedPosition % length];
+        }
+
+        if(added >= 0) {
+            // put the new house between the two neighbouring houses of the tour where it adds the least distance
+            int best = 0;
+            double bestCost = Double.MAX_VALUE;
+            for(int k = 0; k < length; k++) {
+                int a = tour[k], b = tour[(k + 1) % length];
+                double cost = distances.get(a, added) + distances.get(added, b) - (length > 1 ? distances.get(a, b) : 0);
+                if(cost < bestCost) {
+                    bestCost = cost;
+                    best = k;
+                }
+            }
+            System.arraycopy(tour, best + 1, tour, best + 2, length - best - 1);
+            tour[best + 1] = added;
+            length++;
+            changed[changedCount++] = tour[best];
+            changed[changedCount++] = added;
+            changed[changedCount++] = tour[(best + 2) % length];
+        }
+
+        LocalSearch search = new LocalSearch(distances, neighbours);
+        minDistance = search.improve(tour, Arrays.copyOf(changed, changedCount));
+        shortestPath = Arrays.copyOf(tour, numberOfHouses + 1);
+        shortestPath[numberOfHouses] = tour[0]; // return to the first house
+        bestResult = SolverResult.fromTour("Ant Colony Optimization Method", minDistance, shortestPath);
+    }
+
+    /**
+     * Get the constants of the colony
+     * @return the config of the colony
+     */
+    public AntColonyConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Create the pheromone matrix with the initial pheromone value
+     * @return the pheromone matrix
+     */
+    private SymmetricMatrix createPheromoneMatrix() {
+        SymmetricMatrix pheromones = SymmetricMatrix.create(config.getMatrixStorage(), numberOfHouses); // create a matrix for the pheromones
+        for (int i = 0; i < numberOfHouses; i++)
+            for (int j = 0; j <= i; j++) // the matrix is symmetric, so setting [i][j] also sets [j][i]
+                pheromones.set(i, j, config.getInitialPheromone()); // set the initial pheromone value for all edges
+        return pheromones;
+    }
+
+    /**
+     * Create the heuristics matrix which stores distance^(-beta) of every edge, so Math.pow is not called again for the distances
+     * @return the heuristics matrix
+     */
+    private SymmetricMatrix createHeuristicsMatrix() {
+        SymmetricMatrix heuristics = SymmetricMatrix.create(config.getMatrixStorage(), numberOfHouses);
+        for (int i = 0; i < numberOfHouses; i++)
+            for (int j = 0; j <= i; j++)
+                heuristics.set(i, j, Math.pow(distances.get(i, j), -config.getBeta())); // a shorter edge gets a bigger value
+        return heuristics;
+    }
+
+    /**
+     * Create the edge values matrix using the pheromones, alpha, beta, and distances
+     * @return the edge values matrix
+     */
+    private SymmetricMatrix createEdgeValuesMatrix(){
+        SymmetricMatrix edgeValues = SymmetricMatrix.create(config.getMatrixStorage(), numberOfHouses); // create a matrix for the edge values
+        for (int i = 0; i < numberOfHouses; i++)
+            for (int j = 0; j <= i; j++)
+                edgeValues.set(i, j, calculateEdgeValue(i, j)); // calculate the edge values using the pheromones, alpha, beta, and distances
+        return edgeValues;
+    }
+
+    /**
+     * Calculate the edge value of an edge from its stored pheromone.
+     * The edge value should be pheromone^alpha / distance^beta, but the stored pheromones are not multiplied by the pheromone scale.
+     * Since all edge values would be multiplied by the same scale^alpha, the ants choose the houses with the same probabilities.
+     * @param i the first house of the edge
+     * @param j the second house of the edge
+     * @return the edge value
+     */
+    private double calculateEdgeValue(int i, int j) {
+        double pheromone = pheromones.get(i, j);
+        if(config.getAlpha() == 1)
+            return pheromone * heuristics.get(i, j); // the most common case does not need Math.pow at all
+        return Math.pow(pheromone, config.getAlpha()) * heuristics.get(i, j);
+    }
+
+    /**
+     * Add pheromone to an edge and calculate its edge value again
+     * @param i the first house of the edge
+     * @param j the second house of the edge
+     * @param amount the amount of real pheromone to add
+     */
+    void depositPheromone(int i, int j, double amount) {
+        pheromones.set(i, j, pheromones.get(i, j) + amount / pheromoneScale); // the stored pheromone will be multiplied by the scale later
+        edgeValues.set(i, j, calculateEdgeValue(i, j));
+    }
+
+    /**
+     * Set the real pheromone of an edge and calculate its edge value again
+     * @param i the first house of the edge
+     * @param j the second house of the edge
+     * @param pheromone the new pheromone of the edge
+     */
+    void setPheromone(int i, int j, double pheromone) {
+        pheromones.set(i, j, pheromone / pheromoneScale);
+        edgeValues.set(i, j, calculateEdgeValue(i, j));
+    }
+
+    /**
+     * Keep the pheromone of every edge between a minimum and a maximum value
+     * @param min the minimum pheromone
+     * @param max the maximum pheromone
+     */
+    void clampPheromones(double min, double max) {
+        double storedMin = min / pheromoneScale, storedMax = max / pheromoneScale; // compare with the stored pheromones, so the scale can stay
+        for (int i = 0; i < numberOfHouses; i++)
+            for (int j = 0; j < i; j++) {
+                double pheromone = pheromones.get(i, j);
+                if(pheromone < storedMin || pheromone > storedMax) { // only the edges out of the range are changed
+                    pheromones.set(i, j, Math.max(storedMin, Math.min(storedMax, pheromone)));
+                    edgeValues.set(i, j, calculateEdgeValue(i, j));
+                }
+            }
+    }
+
+    /**
+     * Get the real pheromone of an edge
+     * @param i the first house of the edge
+     * @param j the second house of the edge
+     * @return the pheromone of the edge
+     */
+    public double getPheromone(int i, int j) {
+        return pheromones.get(i, j) * pheromoneScale;
+    }
+
+    /**
+     * Degrade the pheromones by the degradation factor after each iteration.
+     * Instead of multiplying every pheromone, we only multiply the pheromone scale, which is the same for all edges.
+     */
+    void degradePheromones() {
+        long start = System.nanoTime();
+        pheromoneScale *= config.getDegradationFactor();
+        if(pheromoneScale < MIN_PHEROMONE_SCALE)
+            normalizePheromones(); // the stored pheromones would become too big compared to the real ones
+        evaporationNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Multiply the stored pheromones by the pheromone scale, so that the stored pheromones are the real pheromones again
+     */
+    void normalizePheromones() {
+        for (int i = 0; i < numberOfHouses; i++)
+            for (int j = 0; j <= i; j++){
+                pheromones.set(i, j, pheromones.get(i, j) * pheromoneScale); // for each edge, apply the degradations since the last normalization
+                edgeValues.set(i, j, calculateEdgeValue(i, j)); // since the pheromones are updated, we will also update the edge values
+            }
+        pheromoneScale = 1;
+    }
+
+    /**
+     * Solve the migros delivery problem using the ant colony optimization method.
+     * The solve runs for the iteration count of the config, but stops earlier if the time budget is used up,
+     * if the colony stagnates, or if stop() is called. At least one iteration is always done.
+     * Calling this method again continues from the pheromones and the shortest path of the previous call.
+     * After restore, the solve of the checkpoint is continued, so only the iterations that were left are done.
+     * @return the shortest path found by the colony
+     */
+    public SolverResult solve() {
+        return solve(config.getIterationCount());
+    }
+
+    /**
+     * Solve the migros delivery problem with a different number of iterations than the config, like solve().
+     * A colony that continues from what it learned, such as a colony made by withHouseAdded, usually needs far fewer iterations.
+     * @param iterationCount the maximum number of iterations
+     * @return the shortest path found by the colony
+     */
+    public SolverResult solve(int iterationCount) {
+        long deadline = config.getTimeBudget() > 0 ? System.nanoTime() + config.getTimeBudget() * 1_000_000 : Long.MAX_VALUE;
+        stopRequested = false;
+        if(!resumed)
+            solveStart = iteration;
+        resumed = false;
+
+        while(iteration - solveStart < iterationCount) {
+            runIteration();
+
+            if(stopRequested || System.nanoTime() >= deadline || hasStagnated())
+                break;
+        }
+        return bestResult;
+    }
+
+    /**
+     * Let all ants of one iteration travel and update the pheromones.
+     * The time of the iteration is measured and given to the listeners, and to the flight recorder if it is recording.
+     */
+    private void runIteration() {
+        IterationEvent event = new IterationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        depositNanos = 0;
+        evaporationNanos = 0;
+
+        Ant[] ants = prepareAnts(); // give the ants of the iteration their own random numbers
+
+        if(config.isParallel())
+            travelInParallel(ants); // all ants of the iteration travel at the same time
+        else
+            travelOneByOne(ants); // ants travel one after another
+
+        Ant iterationBest = findBestAnt(ants);
+        double meanDistance = 0; // the average path length of the ants, before the best path is improved
+        for(Ant ant : ants)
+            meanDistance += ant.pathLength / ants.length;
+        if(config.getLocalSearch() == 2)
+            improveBestAnt(iterationBest); // improve only the best path of the iteration
+
+        // the strategy degrades the pheromones and may add more pheromones after each iteration
+        long strategyStart = System.nanoTime();
+        long evaporationBefore = evaporationNanos;
+        config.getPheromoneStrategy().iterationFinished(this, iterationBest);
+        depositNanos += System.nanoTime() - strategyStart - (evaporationNanos - evaporationBefore); // the evaporation is measured by itself
+
+        long wallNanos = System.nanoTime() - start;
+        IterationStats stats = new IterationStats(iteration, minDistance, iterationBest.pathLength, meanDistance,
+                wallNanos, wallNanos - depositNanos - evaporationNanos, depositNanos, evaporationNanos);
+        if(event.shouldCommit()) {
+            event.iteration = iteration;
+            event.bestDistance = stats.getBestDistance();
+            event.iterationBestDistance = stats.getIterationBestDistance();
+            event.meanDistance = meanDistance;
+            event.constructionNanos = stats.getConstructionNanos();
+            event.depositNanos = depositNanos;
+            event.evaporationNanos = evaporationNanos;
+            event.commit();
+        }
+        iteration++; // the listeners see the colony as it is before the next iteration, so a checkpoint made by them continues from there
+        for(IterationListener listener : iterationListeners)
+            listener.iterationFinished(this, stats);
+    }
+
+    /**
+     * Make a copy of the state of the colony, which can be saved and given to restore later to continue exactly from here.
+     * The random numbers are not copied, since the random numbers of an iteration only depend on the seed and the iteration number.
+     * The copy of the n * (n + 1) / 2 pheromones is made on the calling thread, so the colony must not change while it is made.
+     * @return the copy of the state
+     * @throws IllegalStateException if the pheromones of the colony do not fit into one array
+     */
+    public Checkpoint checkpoint() {
+        long pheromoneCount = (long) numberOfHouses * (numberOfHouses + 1) / 2; // computed in long, since it is too big for an int from 46341 houses
+        if(pheromoneCount > Integer.MAX_VALUE)
+            throw new IllegalStateException("A checkpoint of " + numberOfHouses + " houses would need " + pheromoneCount + " pheromones, but at most "
+                    + Integer.MAX_VALUE + " fit into one array");
+        double[] storedPheromones = new double[(int) pheromoneCount]; // the lower half with the diagonal, row by row
+        int k = 0;
+        for(int i = 0; i < numberOfHouses; i++)
+            for(int j = 0; j <= i; j++)
+                storedPheromones[k++] = pheromones.get(i, j);
+
+        int[] tour = shortestPath == null ? new int[0] : shortestPath.clone();
+        return new Checkpoint(config.getSeed(), numberOfHouses, iteration, solveStart, lastImprovement, minDistance, pheromoneScale, tour, storedPheromones);
+    }
+
+    /**
+     * Continue from a checkpoint of a colony with the same houses and the same seed.
+     * The next solve continues the solve of the checkpoint, so the colony finds the same path as if it was never stopped.
+     * @param checkpoint the state of the colony
+     */
+    public void restore(Checkpoint checkpoint) {
+        if(checkpoint.getNumberOfHouses() != numberOfHouses)
+            throw new IllegalArgumentException("The checkpoint has " + checkpoint.getNumberOfHouses() + " houses but the colony has " + numberOfHouses);
+        if(checkpoint.getSeed() != config.getSeed())
+            throw new IllegalArgumentException("The checkpoint has the seed " + checkpoint.getSeed() + " but the colony has the seed " + config.getSeed());
+
+        int k = 0;
+        for(int i = 0; i < numberOfHouses; i++)
+            for(int j = 0; j <= i; j++) {
+                pheromones.set(i, j, checkpoint.getPheromone(k++));
+                edgeValues.set(i, j, calculateEdgeValue(i, j)); // the edge values only depend on the pheromones, so they are the same as before
+            }
+        pheromoneScale = checkpoint.getPheromoneScale();
+        iteration = checkpoint.getIteration();
+        solveStart = checkpoint.getSolveStart();
+        lastImprovement = checkpoint.getLastImprovement();
+        minDistance = checkpoint.getMinDistance();
+        resumed = true;
+
+        if(checkpoint.getTourLength() > 0) {
+            shortestPath = new int[checkpoint.getTourLength()];
+            for(int i = 0; i < shortestPath.length; i++)
+                shortestPath[i] = checkpoint.getTourHouse(i);
+            bestResult = SolverResult.fromTour("Ant Colony Optimization Method", minDistance, shortestPath);
+        }
+    }
+
+    /**
+     * Check if the colony stopped making progress
+     * @return true if the path did not become shorter for too long or the pheromones converged too much
+     */
+    private boolean hasStagnated() {
+        if(config.getStagnationLimit() > 0 && iteration - lastImprovement > config.getStagnationLimit())
+            return true;
+        return config.getMinBranchingFactor() > 0 && iteration % BRANCHING_CHECK_INTERVAL == 0
+                && branchingFactor() < config.getMinBranchingFactor();
+    }
+
+    /**
+     * Calculate the average number of edges per house whose pheromone is close to the highest pheromone of the house.
+     * When all ants follow the same path, only the two edges of the path have high pheromones and the factor goes down to 2.
+     * @return the branching factor
+     */
+    public double branchingFactor() {
+        long count = 0;
+        for(int i = 0; i < numberOfHouses; i++) {
+            // the stored pheromones are used since the scale does not change which edges are close to the highest
+            double min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+            for(int j = 0; j < numberOfHouses; j++)
+                if(j != i) {
+                    min = Math.min(min, pheromones.get(i, j));
+                    max = Math.max(max, pheromones.get(i, j));
+                }
+            double threshold = min + BRANCHING_LAMBDA * (max - min);
+            for(int j = 0; j < numberOfHouses; j++)
+                if(j != i && pheromones.get(i, j) >= threshold)
+                    count++;
+        }
+        return (double) count / numberOfHouses;
+    }
+
+    /**
+     * Ask the colony to stop solving after the current iteration. It can be called from any thread.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Get the shortest path found so far. It can be called from any thread while the colony is solving.
+     * @return the shortest path, or null if no ant has finished yet
+     */
+    public SolverResult getBestResult() {
+        return bestResult;
+    }
+
+    /**
+     * Add a listener which is called every time the colony finds a shorter path
+     * @param listener the listener
+     */
+    public void addImprovementListener(ImprovementListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Add a listener which is called after every iteration
+     * @param listener the listener
+     */
+    public void addIterationListener(IterationListener listener) {
+        iterationListeners.add(listener);
+    }
+
+    /**
+     * Prepare the ants of the current iteration. The ants are created in the first iteration and used again after that.
+     * The random numbers of an iteration only depend on the seed and the iteration number,
+     * and every ant gets its own generator split from them, so the ants never share a generator
+     * and the same seed always gives the same paths, even when the ants travel in parallel.
+     * @return the ants of the iteration
+     */
+    private Ant[] prepareAnts() {
+        // mix the seed and the iteration number, so that the generators of two iterations are not related
+        SplittableRandom iterationRandom = new SplittableRandom(new SplittableRandom(config.getSeed() + iteration).nextLong());
+
+        if(ants == null) {
+            ants = new Ant[config.getAntCount()];
+            for(int j = 0; j < ants.length; j++)
+                ants[j] = new Ant(this, iterationRandom.split()); // the ants get their generators in the same order every time
+        }
+        else
+            for(Ant ant : ants)
+                ant.reset(iterationRandom.split());
+        return ants;
+    }
+
+    /**
+     * Let the ants of one iteration travel one after another, each ant updates the pheromones as soon as it finishes
+     * @param ants the ants of the iteration
+     */
+    private void travelOneByOne(Ant[] ants) {
+        for(Ant ant : ants) {
+            ant.travel(); // ant will travel
+            if(config.getLocalSearch() == 1)
+                ant.improve(localSearch); // make the path shorter before it is compared and before the pheromones are updated
+
+            // after the travel, we will check if the path is the shortest and let the strategy update the pheromones
+            long depositStart = System.nanoTime();
+            checkShortestPath(ant);
+            config.getPheromoneStrategy().antFinished(this, ant);
+            depositNanos += System.nanoTime() - depositStart;
+        }
+    }
+
+    /**
+     * Let the ants of one iteration travel at the same time on all cores.
+     * During the travel, the ants only read the pheromones left by the previous iterations,
+     * and their pheromones are added after all ants have finished.
+     * @param ants the ants of the iteration
+     */
+    private void travelInParallel(Ant[] ants) {
+        // the pheromone and edge value matrices are not changed while the ants travel, so the ants do not interfere with each other
+        IntStream.range(0, ants.length).parallel().forEach(j -> {
+            ants[j].travel();
+            if(config.getLocalSearch() == 1)
+                ants[j].improve(localSearch); // the local search does not change the colony, so it can also run in parallel
+        });
+
+        // we update the pheromones in the order of the ants, not in the order they finished,
+        // so the result does not depend on how the threads were scheduled
+        long depositStart = System.nanoTime();
+        for(Ant ant : ants) {
+            checkShortestPath(ant);
+            config.getPheromoneStrategy().antFinished(this, ant);
+        }
+        depositNanos += System.nanoTime() - depositStart;
+    }
+
+    /**
+     * Find the ant with the shortest path in the iteration
+     * @param ants the ants of the iteration
+     * @return the best ant
+     */
+    private Ant findBestAnt(Ant[] ants) {
+        Ant best = ants[0];
+        for(Ant ant : ants)
+            if(ant.pathLength < best.pathLength)
+                best = ant;
+        return best;
+    }
+
+    /**
+     * Improve the shortest path of the iteration with the local search.
+     * The strategy is told about the improved path, so it can give it more pheromones.
+     * @param best the best ant of the iteration, which is already given to the strategy
+     */
+    private void improveBestAnt(Ant best) {
+        best.improve(localSearch);
+        long depositStart = System.nanoTime();
+        checkShortestPath(best);
+        config.getPheromoneStrategy().bestImproved(this, best);
+        depositNanos += System.nanoTime() - depositStart;
+    }
+
+    /**
+     * Get the distance of the shortest path found so far
+     * @return the minimum distance
+     */
+    public double getMinDistance() {
+        return minDistance;
+    }
+
+    /**
+     * Get the shortest path found so far as the indices of the houses, the first house is repeated at the end
+     * @return the shortest tour, which must not be changed
+     */
+    int[] getShortestTour() {
+        return shortestPath;
+    }
+
+    /**
+     * Update the shortest path if the path of the ant is shorter
+     * @param ant the ant that finished its travel
+     */
+    private void checkShortestPath(Ant ant) {
+        if(ant.pathLength < minDistance){ // if there is a shorter path
+            minDistance = ant.pathLength; // update the minimum distance
+            shortestPath = ant.path.clone(); // update the shortest path, the ant uses its path again in the next iteration
+            lastImprovement = iteration;
+
+            bestResult = SolverResult.fromTour("Ant Colony Optimization Method", minDistance, shortestPath); // other threads see the new result
+            for(ImprovementListener listener : listeners)
+                listener.improved(iteration, bestResult);
+        }
+    }
+
+    /**
+     * Take a tour found somewhere else, for example by another colony. The edges of the tour get pheromone like the path of an ant,
+     * and if the tour is shorter than the shortest path of the colony, it becomes the shortest path.
+     * It must be called from the thread that solves the colony, such as from an iteration listener.
+     * @param tour the indices of the houses in the order of the tour, the first house is repeated at the end
+     * @param length the length of the tour
+     * @return true if the tour became the shortest path
+     */
+    public boolean acceptTour(int[] tour, double length) {
+        if(tour.length != numberOfHouses + 1)
+            throw new IllegalArgumentException("A tour of " + numberOfHouses + " houses should have " + (numberOfHouses + 1) + " houses but it has " + tour.length);
+        double deposit = config.getQ() / length;
+        for(int i = 1; i < tour.length; i++)
+            depositPheromone(tour[i], tour[i - 1], deposit);
+
+        if(length >= minDistance)
+            return false;
+        minDistance = length;
+        shortestPath = tour.clone();
+        lastImprovement = iteration;
+        bestResult = SolverResult.fromTour("Ant Colony Optimization Method", minDistance, shortestPath);
+        for(ImprovementListener listener : listeners)
+            listener.improved(iteration, bestResult);
+        return true;
+    }
+
+    /**
+     * Find the edges with the highest pheromones. The stored pheromones are compared, so the pheromones do not need to be normalized.
+     * @param minFraction an edge is kept only if its pheromone is at least this fraction of the highest pheromone, 0 to keep all edges
+     * @param maxEdges the maximum number of edges that are kept, 0 for no limit
+     * @return the edges with their real pheromones, sorted from the highest pheromone to the lowest
+     */
+    public PheromoneEdges strongestEdges(double minFraction, int maxEdges) {
+        return PheromoneEdges.select(pheromones, pheromoneScale, minFraction, maxEdges);
+    }
+
+    /**
+     * Copy the real pheromones of the edges from every house to its nearest houses. The copy has only n * k pheromones,
+     * so it can be made after every iteration, and PheromoneEdges.select can find the strongest of them on another thread.
+     * It must be called from the thread that solves the colony, such as from an iteration listener.
+     * @param neighbours the nearest houses of every house of this colony
+     * @return the pheromone of the edge from every house to each of its nearest houses, in the order of neighbours.getCandidates()
+     */
+    public double[] candidatePheromones(CandidateLists neighbours) {
+        int[] candidates = neighbours.getCandidates();
+        int k = neighbours.getCandidateCount();
+        double[] sample = new double[candidates.length];
+        for(int i = 0; k > 0 && i < numberOfHouses; i++)
+            for(int c = neighbours.getOffset(i); c < neighbours.getOffset(i) + k; c++)
+                sample[c] = pheromones.get(i, candidates[c]) * pheromoneScale;
+        return sample;
+    }
+
+    /**
+     * Show the pheromone intensities of all edges on the screen
+     * @param houses the list of houses
+     */
+    public void showPheromoneIntensities(ArrayList<House> houses){
+        showPheromoneIntensities(houses, 0, 0);
+    }
+
+    /**
+     * Show the pheromone intensities of the strongest edges on the screen
+     * @param houses the list of houses
+     * @param minFraction an edge is drawn only if its pheromone is at least this fraction of the highest pheromone, 0 to draw all edges
+     * @param maxEdges the maximum number of edges that are drawn, 0 for no limit
+     */
+    public void showPheromoneIntensities(ArrayList<House> houses, double minFraction, int maxEdges){
+        Screen.initializeScreen();
+        Screen.showPheromoneIntensities(strongestEdges(minFraction, maxEdges), houses);
+        Screen.drawHouses(houses, 2);
+        StdDraw.show();
+    }
+
+    /**
+     * Save the pheromone intensities of the strongest edges as a png file, which does not need a screen
+     * @param houses the list of houses
+     * @param file the png file
+     * @param size the width and height of the image in pixels
+     * @param minFraction an edge is drawn only if its pheromone is at least this fraction of the highest pheromone, 0 to draw all edges
+     * @param maxEdges the maximum number of edges that are drawn, 0 for no limit
+     * @throws IOException if the file cannot be written
+     */
+    public void savePheromoneImage(ArrayList<House> houses, File file, int size, double minFraction, int maxEdges) throws IOException {
+        ImageRenderer.writePng(ImageRenderer.drawPheromones(strongestEdges(minFraction, maxEdges), houses, size), file);
+    }
+}
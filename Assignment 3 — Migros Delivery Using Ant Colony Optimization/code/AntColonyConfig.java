@@ -0,0 +1,352 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The AntColonyConfig class stores the constants of the ant colony optimization method.
+ * A config cannot be changed after it is created, so the same config can be shared by many colonies at the same time.
+ */
+public class AntColonyConfig {
+    private final int iterationCount; // iteration count for the ant colony optimization method
+    private final int antCount; // ant count per iteration
+    private final double degradationFactor; // pheromone degradation factor that will be applied after each iteration
+    private final double alpha; // alpha value which gives the importance of the pheromone
+    private final double beta; // beta value which gives the importance of the distance
+    private final double initialPheromone; // initial pheromone value
+    private final double Q; // Q value which is used to update the pheromones
+    private final boolean parallel; // whether the ants of an iteration travel at the same time on all cores
+    private final int candidateCount; // number of nearest houses an ant chooses from at each step, 0 to choose from all houses
+    private final int matrixStorage; // how the matrices are stored, SymmetricMatrix.FULL, TRIANGULAR or FLOAT_TRIANGULAR
+    private final int localSearch; // 0 for no local search, 1 to improve the path of every ant, 2 to improve only the best path of each iteration
+    private final PheromoneStrategy pheromoneStrategy; // how the ants leave pheromones and how the pheromones degrade
+    private final long timeBudget; // milliseconds a solve may take, 0 for no limit
+    private final int stagnationLimit; // the solve stops if the path does not become shorter in this many iterations, 0 for no limit
+    private final double minBranchingFactor; // the solve stops if the pheromones converge so much that the branching factor is below this, 0 for no limit
+    private final long seed; // seed of the random numbers, two solves with the same config and houses find the same path
+    private final int distanceOracle; // how the distances are found, DistanceOracle.MATRIX, ON_THE_FLY or CACHED_ROWS
+    private final int cachedRows; // number of distance rows kept by DistanceOracle.CACHED_ROWS
+
+    /**
+     * Create a config for the ant colony optimization method
+     * @param iterationCount the iteration count
+     * @param antCount the ant count
+     * @param degradationFactor the pheromone degradation factor
+     * @param alpha the alpha value
+     * @param beta the beta value
+     * @param initialPheromone the initial pheromone value
+     * @param Q the Q value
+     * @param parallel whether the ants of an iteration travel in parallel
+     */
+    public AntColonyConfig(int iterationCount, int antCount, double degradationFactor, double alpha, double beta, double initialPheromone, double Q, boolean parallel) {
+        this(iterationCount, antCount, degradationFactor, alpha, beta, initialPheromone, Q, parallel, 0, SymmetricMatrix.FULL, 0, new AntSystem(), 0, 0, 0,
+                ThreadLocalRandom.current().nextLong(), DistanceOracle.MATRIX, 0); // a random seed unless withSeed is used
+    }
+
+    /**
+     * Create a config with all constants, the other constructor and the with methods use this one
+     */
+    private AntColonyConfig(int iterationCount, int antCount, double degradationFactor, double alpha, double beta, double initialPheromone, double Q, boolean parallel,
+                            int candidateCount, int matrixStorage, int localSearch, PheromoneStrategy pheromoneStrategy,
+                            long timeBudget, int stagnationLimit, double minBranchingFactor, long seed, int distanceOracle, int cachedRows) {
+        this.iterationCount = iterationCount;
+        this.antCount = antCount;
+        this.degradationFactor = degradationFactor;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.initialPheromone = initialPheromone;
+        this.Q = Q;
+        this.parallel = parallel;
+        this.candidateCount = candidateCount;
+        this.matrixStorage = matrixStorage;
+        this.localSearch = localSearch;
+        this.pheromoneStrategy = pheromoneStrategy;
+        this.timeBudget = timeBudget;
+        this.stagnationLimit = stagnationLimit;
+        this.minBranchingFactor = minBranchingFactor;
+        this.seed = seed;
+        this.distanceOracle = distanceOracle;
+        this.cachedRows = cachedRows;
+    }
+
+    /**
+     * Create a copy of the config that lets the ants choose only from the nearest houses
+     * @param candidateCount the number of nearest houses an ant chooses from at each step, 0 to choose from all houses
+     * @return the new config
+     */
+    public AntColonyConfig withCandidateCount(int candidateCount) {
+        return new AntColonyConfig(iterationCount, antCount, degradationFactor, alpha, beta, initialPheromone, Q, parallel,
+                candidateCount, matrixStorage, localSearch, pheromoneStrategy,
+                timeBudget, stagnationLimit, minBranchingFactor, seed, distanceOracle, cachedRows);
+    }
+
+    /**
+     * Create a copy of the config that stores the matrices in another way
+     * @param matrixStorage SymmetricMatrix.FULL, TRIANGULAR or FLOAT_TRIANGULAR
+     * @return the new config
+     */
+    public AntColonyConfig withMatrixStorage(int matrixStorage) {
+        return new AntColonyConfig(iterationCount, antCount, degradationFactor, alpha, beta, initialPheromone, Q, parallel,
+                candidateCount, matrixStorage, localSearch, pheromoneStrategy,
+                timeBudget, stagnationLimit, minBranchingFactor, seed, distanceOracle, cachedRows);
+    }
+
+    /**
+     * Create a copy of the config that improves the paths of the ants with 2-opt and Or-opt moves
+     * @param localSearch 0 for no local search, 1 to improve the path of every ant, 2 to improve only the best path of each iteration
+     * @return the new config
+     */
+    public AntColonyConfig withLocalSearch(int localSearch) {
+        return new AntColonyConfig(iterationCount, antCount, degradationFactor, alpha, beta, initialPheromone, Q, parallel,
+                candidateCount, matrixStorage, localSearch, pheromoneStrategy,
+                timeBudget, stagnationLimit, minBranchingFactor, seed, distanceOracle, cachedRows);
+    }
+
+    /**
+     * Create a copy of the config that uses another rule to update the pheromones
+     * @param pheromoneStrategy AntSystem, MaxMinAntSystem, AntColonySystem or another strategy
+     * @return the new config
+     */
+    public AntColonyConfig withPheromoneStrategy(PheromoneStrategy pheromoneStrategy) {
+        return new AntColonyConfig(iterationCount, antCount, degradationFactor, alpha, beta, initialPheromone, Q, parallel,
+                candidateCount, matrixStorage, localSearch, pheromoneStrategy,
+                timeBudget, stagnationLimit, minBranchingFactor, seed, distanceOracle, cachedRows);
+    }
+
+    /**
+     * Create a copy of the config that stops solving after some time, even if the iterations are not finished
+     * @param timeBudget the milliseconds a solve may take, 0 for no limit
+     * @return the new config
+     */
+    public AntColonyConfig withTimeBudget(long timeBudget) {
+        return new AntColonyConfig(iterationCount, antCount, degradationFactor, alpha, beta, initialPheromone, Q, parallel,
+                candidateCount, matrixStorage, localSearch, pheromoneStrategy,
+                timeBudget, stagnationLimit, minBranchingFactor, seed, distanceOracle, cachedRows);
+    }
+
+    /**
+     * Create a copy of the config that stops solving when the colony stops making progress
+     * @param stagnationLimit the solve stops if the path does not become shorter in this many iterations, 0 for no limit
+     * @param minBranchingFactor the solve stops if the average number of edges with a high pheromone per house is below this, 0 for no limit
+     * @return the new config
+     */
+    public AntColonyConfig withStagnation(int stagnationLimit, double minBranchingFactor) {
+        return new AntColonyConfig(iterationCount, antCount, degradationFactor, alpha, beta, initialPheromone, Q, parallel,
+                candidateCount, matrixStorage, localSearch, pheromoneStrategy,
+                timeBudget, stagnationLimit, minBranchingFactor, seed, distanceOracle, cachedRows);
+    }
+
+    /**
+     * Create a copy of the config with a fixed seed, so that every solve with the new config finds the same path
+     * @param seed the seed of the random numbers
+     * @return the new config
+     */
+    public AntColonyConfig withSeed(long seed) {
+        return new AntColonyConfig(iterationCount, antCount, degradationFactor, alpha, beta, initialPheromone, Q, parallel,
+                candidateCount, matrixStorage, localSearch, pheromoneStrategy,
+                timeBudget, stagnationLimit, minBranchingFactor, seed, distanceOracle, cachedRows);
+    }
+
+    /**
+     * Create a copy of the config that finds the distances in another way, to use less memory for many houses.
+     * Only the distance matrix is saved: a colony still keeps its heuristics, pheromones and edge values as n * n matrices,
+     * so ON_THE_FLY and CACHED_ROWS save one of its four matrices and do not let a colony solve more houses than fit into matrices.
+     * For more houses, use the ClusterSolver, whose colonies are small.
+     * @param distanceOracle DistanceOracle.MATRIX, ON_THE_FLY or CACHED_ROWS
+     * @param cachedRows the number of distance rows kept by DistanceOracle.CACHED_ROWS
+     * @return the new config
+     */
+    public AntColonyConfig withDistanceOracle(int distanceOracle, int cachedRows) {
+        return new AntColonyConfig(iterationCount, antCount, degradationFactor, alpha, beta, initialPheromone, Q, parallel,
+                candidateCount, matrixStorage, localSearch, pheromoneStrategy,
+                timeBudget, stagnationLimit, minBranchingFactor, seed, distanceOracle, cachedRows);
+    }
+
+    /**
+     * Create a copy of the config with another number of iterations and ants
+     * @param iterationCount the iteration count
+     * @param antCount the ant count per iteration
+     * @return the new config
+     */
+    public AntColonyConfig withAnts(int iterationCount, int antCount) {
+        return new AntColonyConfig(iterationCount, antCount, degradationFactor, alpha, beta, initialPheromone, Q, parallel,
+                candidateCount, matrixStorage, localSearch, pheromoneStrategy,
+                timeBudget, stagnationLimit, minBranchingFactor, seed, distanceOracle, cachedRows);
+    }
+
+    /**
+     * Create a copy of the config that leaves and degrades the pheromones by other amounts
+     * @param degradationFactor the pheromone degradation factor
+     * @param Q the Q value
+     * @return the new config
+     */
+    public AntColonyConfig withPheromoneUpdate(double degradationFactor, double Q) {
+        return new AntColonyConfig(iterationCount, antCount, degradationFactor, alpha, beta, initialPheromone, Q, parallel,
+                candidateCount, matrixStorage, localSearch, pheromoneStrategy,
+                timeBudget, stagnationLimit, minBranchingFactor, seed, distanceOracle, cachedRows);
+    }
+
+    /**
+     * Create a copy of the config with other weights of the pheromones and the distances
+     * @param alpha the power of the pheromone of an edge
+     * @param beta the power of the inverse distance of an edge
+     * @return the new config
+     */
+    public AntColonyConfig withWeights(double alpha, double beta) {
+        return new AntColonyConfig(iterationCount, antCount, degradationFactor, alpha, beta, initialPheromone, Q, parallel,
+                candidateCount, matrixStorage, localSearch, pheromoneStrategy,
+                timeBudget, stagnationLimit, minBranchingFactor, seed, distanceOracle, cachedRows);
+    }
+
+    /**
+     * Create a copy of the config whose ants travel in parallel or one after another
+     * @param parallel true to let the ants of an iteration travel at the same time
+     * @return the new config
+     */
+    public AntColonyConfig withParallel(boolean parallel) {
+        return new AntColonyConfig(iterationCount, antCount, degradationFactor, alpha, beta, initialPheromone, Q, parallel,
+                candidateCount, matrixStorage, localSearch, pheromoneStrategy,
+                timeBudget, stagnationLimit, minBranchingFactor, seed, distanceOracle, cachedRows);
+    }
+
+    /**
+     * Get the iteration count
+     * @return the iteration count
+     */
+    public int getIterationCount() {
+        return iterationCount;
+    }
+
+    /**
+     * Get the ant count per iteration
+     * @return the ant count
+     */
+    public int getAntCount() {
+        return antCount;
+    }
+
+    /**
+     * Get the pheromone degradation factor
+     * @return the pheromone degradation factor
+     */
+    public double getDegradationFactor() {
+        return degradationFactor;
+    }
+
+    /**
+     * Get the alpha value
+     * @return the alpha value
+     */
+    public double getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * Get the beta value
+     * @return the beta value
+     */
+    public double getBeta() {
+        return beta;
+    }
+
+    /**
+     * Get the initial pheromone value
+     * @return the initial pheromone value
+     */
+    public double getInitialPheromone() {
+        return initialPheromone;
+    }
+
+    /**
+     * Get the Q value
+     * @return the Q value
+     */
+    public double getQ() {
+        return Q;
+    }
+
+    /**
+     * Check if the ants of an iteration travel in parallel
+     * @return true if the ants travel in parallel
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Get the number of nearest houses an ant chooses from at each step
+     * @return the candidate count, 0 if the ants choose from all houses
+     */
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    /**
+     * Get how the matrices are stored
+     * @return SymmetricMatrix.FULL, TRIANGULAR or FLOAT_TRIANGULAR
+     */
+    public int getMatrixStorage() {
+        return matrixStorage;
+    }
+
+    /**
+     * Get which paths are improved by the local search
+     * @return 0 for no local search, 1 for the path of every ant, 2 for the best path of each iteration
+     */
+    public int getLocalSearch() {
+        return localSearch;
+    }
+
+    /**
+     * Get the rule that updates the pheromones
+     * @return the pheromone strategy
+     */
+    public PheromoneStrategy getPheromoneStrategy() {
+        return pheromoneStrategy;
+    }
+
+    /**
+     * Get the milliseconds a solve may take
+     * @return the time budget, 0 for no limit
+     */
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * Get the number of iterations without a shorter path after which the solve stops
+     * @return the stagnation limit, 0 for no limit
+     */
+    public int getStagnationLimit() {
+        return stagnationLimit;
+    }
+
+    /**
+     * Get the branching factor below which the solve stops
+     * @return the minimum branching factor, 0 for no limit
+     */
+    public double getMinBranchingFactor() {
+        return minBranchingFactor;
+    }
+
+    /**
+     * Get the seed of the random numbers
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get how the distances are found
+     * @return DistanceOracle.MATRIX, ON_THE_FLY or CACHED_ROWS
+     */
+    public int getDistanceOracle() {
+        return distanceOracle;
+    }
+
+    /**
+     * Get the number of distance rows kept by DistanceOracle.CACHED_ROWS
+     * @return the number of cached rows
+     */
+    public int getCachedRows() {
+        return cachedRows;
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * The AntColonySystem class implements the Ant Colony System.
+ * The ants often go to the best house instead of choosing randomly, the edges an ant used lose some pheromone
+ * so that the next ants try other edges, and only the shortest path found so far gets pheromone after each iteration.
+ */
+public class AntColonySystem implements PheromoneStrategy {
+    private final double exploitation; // probability of going to the best house instead of choosing randomly
+    private final double localDegradation; // part of the pheromone an edge loses when an ant uses it
+
+    /**
+     * Create an Ant Colony System with the usual values of 0.9 and 0.1
+     */
+    public AntColonySystem() {
+        this(0.9, 0.1);
+    }
+
+    /**
+     * Create an Ant Colony System
+     * @param exploitation the probability of going to the best house instead of choosing randomly
+     * @param localDegradation the part of the pheromone an edge loses when an ant uses it
+     */
+    public AntColonySystem(double exploitation, double localDegradation) {
+        this.exploitation = exploitation;
+        this.localDegradation = localDegradation;
+    }
+
+    @Override
+    public double getExploitation() {
+        return exploitation;
+    }
+
+    @Override
+    public void antFinished(AntColony colony, Ant ant) {
+        // the edges of the ant move towards the initial pheromone.
+        // this is done after the whole travel instead of after every step, so that the ants can travel in parallel
+        double initialPheromone = colony.getConfig().getInitialPheromone();
+        for(int i = 1; i < ant.path.length; i++) {
+            int currentHouse = ant.path[i], previousHouse = ant.path[i - 1];
+            double pheromone = colony.getPheromone(currentHouse, previousHouse);
+            colony.setPheromone(currentHouse, previousHouse, (1 - localDegradation) * pheromone + localDegradation * initialPheromone);
+        }
+    }
+
+    @Override
+    public void iterationFinished(AntColony colony, Ant iterationBest) {
+        // only the edges of the shortest path found so far degrade and get pheromone
+        AntColonyConfig config = colony.getConfig();
+        double rate = 1 - config.getDegradationFactor();
+        double deposit = config.getQ() / colony.getMinDistance();
+        int[] shortestPath = colony.getShortestTour();
+        for(int i = 1; i < shortestPath.length; i++) {
+            int currentHouse = shortestPath[i], previousHouse = shortestPath[i - 1];
+            double pheromone = colony.getPheromone(currentHouse, previousHouse);
+            colony.setPheromone(currentHouse, previousHouse, (1 - rate) * pheromone + rate * deposit);
+        }
+    }
+}
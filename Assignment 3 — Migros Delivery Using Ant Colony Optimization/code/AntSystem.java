@@ -0,0 +1,20 @@
+/**
+ * The AntSystem class is the original rule of the ant colony optimization method.
+ * Every ant leaves Q / pathLength pheromone on its path, and all pheromones degrade after each iteration.
+ */
+public class AntSystem implements PheromoneStrategy {
+    @Override
+    public void antFinished(AntColony colony, Ant ant) {
+        ant.updatePheromones(colony.getConfig().getQ() / ant.pathLength); // update the pheromones of the edges that the ant traveled
+    }
+
+    @Override
+    public void bestImproved(AntColony colony, Ant iterationBest) {
+        antFinished(colony, iterationBest); // the improved path gets pheromone like the path of another ant
+    }
+
+    @Override
+    public void iterationFinished(AntColony colony, Ant iterationBest) {
+        colony.degradePheromones(); // degrade the pheromones by the degradation factor after each iteration
+    }
+}
@@ -0,0 +1,55 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Program to solve many input files with the ant colony optimization method and save the results as png files, without a screen.
+ * For every input file, the shortest path is saved as name-path.png and the strongest pheromones as name-pheromones.png.
+ * Usage: java -Djava.awt.headless=true BatchExport outputFolder input01.txt input02.txt ...
+ */
+public class BatchExport {
+    public static void main(String[] args) throws IOException {
+        // Constants for ant colony optimization, the same as in BerkSel
+        final int ITERATION_COUNT = 100;
+        final int ANT_COUNT = 50;
+        final double DEGRADATION_FACTOR = 0.8;
+        final double ALPHA = 1.0;
+        final double BETA = 1.6;
+        final double INITIAL_PHEROMONE = 0.001;
+        final double Q = 0.0001;
+        final int CANDIDATE_COUNT = 15; // number of nearest houses an ant chooses from at each step, 0 to choose from all houses
+        final long SEED = 160; // seed of the random numbers, the same seed always gives the same path
+
+        // Constants for the images
+        final int IMAGE_SIZE = 800; // width and height of the images in pixels
+        final double MIN_EDGE_FRACTION = 0.01; // an edge is drawn only if its pheromone is at least this fraction of the highest pheromone
+        final int MAX_EDGES = 5000; // the maximum number of edges that are drawn, 0 for no limit
+
+        if(args.length < 2) {
+            System.out.println("Usage: java -Djava.awt.headless=true BatchExport <output folder> <input file>...");
+            return;
+        }
+        File outputFolder = new File(args[0]);
+        if(!outputFolder.isDirectory() && !outputFolder.mkdirs())
+            throw new IOException("Cannot create the output folder " + outputFolder);
+
+        AntColonyConfig config = new AntColonyConfig(ITERATION_COUNT, ANT_COUNT, DEGRADATION_FACTOR, ALPHA, BETA, INITIAL_PHEROMONE, Q, true)
+                .withCandidateCount(CANDIDATE_COUNT)
+                .withSeed(SEED);
+
+        for(int i = 1; i < args.length; i++) {
+            File input = new File(args[i]);
+            String name = input.getName().replaceFirst("\\.[^.]*$", ""); // the file name without the extension
+            ArrayList<House> houses = House.readHouses(input);
+
+            long start = System.currentTimeMillis(); // start the timer
+            AntColony colony = new AntColony(config, houses);
+            SolverResult result = colony.solve();
+            double time = (System.currentTimeMillis() - start) / 1000.0; // the time it takes to find the shortest path in seconds
+
+            result.savePathImage(houses, new File(outputFolder, name + "-path.png"), IMAGE_SIZE);
+            colony.savePheromoneImage(houses, new File(outputFolder, name + "-pheromones.png"), IMAGE_SIZE, MIN_EDGE_FRACTION, MAX_EDGES);
+            System.out.printf("%s: %d houses, shortest distance %.5f, %.2f seconds%n", input.getName(), houses.size(), result.getDistance(), time);
+        }
+    }
+}
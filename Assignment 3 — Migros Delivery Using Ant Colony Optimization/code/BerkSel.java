@@ -1,5 +1,7 @@
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 
 /**
@@ -8,7 +10,7 @@ import java.util.ArrayList;
  * @since 05.05.2023
  */
 public class BerkSel {
-    public static void main(String[] args) throws FileNotFoundException {
+    public static void main(String[] args) throws IOException {
         // Constants for ant colony optimization
         final int ITERATION_COUNT = 100;
         final int ANT_COUNT = 50;
@@ -17,18 +19,61 @@ public class BerkSel {
         final double BETA = 1.6;
         final double INITIAL_PHEROMONE = 0.001;
         final double Q = 0.0001;
+        final boolean PARALLEL = false; // true to let the ants of an iteration travel at the same time, and the brute force method search, on all cores
+        final int CANDIDATE_COUNT = 0; // number of nearest houses an ant chooses from at each step, 0 to choose from all houses, 15 is much faster for many houses
+        final int LOCAL_SEARCH = 0; // 0 for no local search, 1 to improve the path of every ant, 2 to improve only the best path of each iteration
+        final int VARIANT = 1; // 1 for Ant System, 2 for MAX-MIN Ant System, 3 for Ant Colony System
+        final long TIME_BUDGET = 0; // milliseconds the ant colony optimization may take, 0 for no limit
+        final int STAGNATION_LIMIT = 0; // stop if the path does not become shorter in this many iterations, 0 for no limit
+        final long SEED = 160; // seed of the random numbers, the same seed always gives the same path
+        final int MATRIX_STORAGE = SymmetricMatrix.FULL; // FULL is the fastest, TRIANGULAR and FLOAT_TRIANGULAR use less memory for many houses
+        final int DISTANCE_ORACLE = DistanceOracle.MATRIX; // MATRIX is the fastest, ON_THE_FLY and CACHED_ROWS save the distance matrix but the colony still keeps three other n * n matrices
+        final int CACHED_ROWS = 1000; // number of distance rows kept by CACHED_ROWS
+        final double MIN_EDGE_FRACTION = 0; // an edge is drawn only if its pheromone is at least this fraction of the highest pheromone
+        final int MAX_EDGES = 2000; // the maximum number of pheromone edges that are drawn, 0 for no limit
+        final boolean LIVE_VIEW = false; // true to watch the shortest path and the pheromones on the screen while the colony is solving
+        final int CLUSTER_SIZE = 200; // maximum number of houses solved by one colony in the cluster method
+        final int ISLAND_COUNT = 4; // number of colonies solved at the same time by the island method, each with its own seed and beta
+        final int MIGRATION_INTERVAL = 10; // number of iterations between two shortest paths sent from an island to the next one
+        final String TUNED_CONFIG_FILE = ""; // file that gets the constants found by the tuner, the constants above are replaced by it if it exists, empty for no file
+        final String[] TUNING_FILES = {}; // sample input files that the tuner solves, empty to solve only the input file
+        final int TUNING_CANDIDATES = 32; // number of random constants that the tuner compares
+        final double TUNING_TOLERANCE = 0.01; // the tuner looks for the fastest constants whose distance is at most this fraction longer than the constants above
+        final String CHECKPOINT_FILE = ""; // file that gets the state of the colony every CHECKPOINT_INTERVAL iterations, the solve continues from it if it exists, empty for no file
+        final int CHECKPOINT_INTERVAL = 10; // number of iterations between two checkpoints
+        final String TELEMETRY_FILE = ""; // file that gets the statistics of every iteration, .csv for csv and anything else for json, empty for no file
 
 
-        int chosenMethod = 2; // 1 for the brute force method, 2 for ant colony optimization method
+        int chosenMethod = 2; // 1 for the brute force method, 2 for ant colony optimization method, 3 for the held-karp method, 4 for the cluster method, 5 for the island method, 6 to tune the constants
         int chosenGraph = 1; // 1 for the shortest path, 2 for the pheromone intensities
 
-        String filePath = "input01.txt"; // the path to the input file
-        ArrayList<House> houses = House.readHouses(new File(filePath)); // read the houses from the input file and store them in an array list
+        String filePath = "input01.txt"; // the path to the input file, a text file or a binary file made by HouseFile
+        HouseSet set = HouseSet.read(new File(filePath)); // read the houses from the input file into arrays, which the solvers use
+        ArrayList<House> houses = set.toHouses(); // the screen draws house objects
+
+
+        PheromoneStrategy strategy = new AntSystem(); // how the ants update the pheromones
+        if(VARIANT == 2)
+            strategy = new MaxMinAntSystem();
+        else if(VARIANT == 3)
+            strategy = new AntColonySystem();
+
+        AntColonyConfig config = new AntColonyConfig(ITERATION_COUNT, ANT_COUNT, DEGRADATION_FACTOR, ALPHA, BETA, INITIAL_PHEROMONE, Q, PARALLEL)
+                .withCandidateCount(CANDIDATE_COUNT)
+                .withMatrixStorage(MATRIX_STORAGE)
+                .withDistanceOracle(DISTANCE_ORACLE, CACHED_ROWS)
+                .withLocalSearch(LOCAL_SEARCH)
+                .withPheromoneStrategy(strategy)
+                .withTimeBudget(TIME_BUDGET)
+                .withStagnation(STAGNATION_LIMIT, 0)
+                .withSeed(SEED); // the constants for the ant colony optimization method
+        if(chosenMethod != 6 && !TUNED_CONFIG_FILE.isEmpty() && Files.exists(Path.of(TUNED_CONFIG_FILE)))
+            config = ParameterTuner.read(config, Path.of(TUNED_CONFIG_FILE)); // use the constants found by the tuner
 
 
         if(chosenMethod == 1) { // Brute-Force Method
             long start = System.currentTimeMillis(); // start the timer
-            BruteForce.solve(houses); // execute the brute force method
+            BruteForce.solve(set, PARALLEL); // execute the brute force method
             long end = System.currentTimeMillis(); // end the timer
             double time = (end - start) / 1000.0; // calculate the time it takes to find the shortest path in seconds
 
@@ -39,20 +84,102 @@ public class BerkSel {
 
 
         else if(chosenMethod == 2) { // Ant Colony Optimization Method
-            Ant.initializeConstants(ITERATION_COUNT, ANT_COUNT, DEGRADATION_FACTOR, ALPHA, BETA, INITIAL_PHEROMONE, Q, houses); // initialize the constants for the ant colony optimization method
+            AntColony colony = new AntColony(config, set); // create a colony for the houses
+            CheckpointWriter checkpointWriter = null;
+            if(!CHECKPOINT_FILE.isEmpty()) {
+                if(Files.exists(Path.of(CHECKPOINT_FILE)))
+                    colony.restore(Checkpoint.read(Path.of(CHECKPOINT_FILE))); // continue the solve that was stopped
+                checkpointWriter = new CheckpointWriter(Path.of(CHECKPOINT_FILE), CHECKPOINT_INTERVAL);
+                colony.addIterationListener(checkpointWriter);
+            }
+            LiveView liveView = null;
+            if(LIVE_VIEW) {
+                liveView = new LiveView(houses, 100, MIN_EDGE_FRACTION, MAX_EDGES); // draw at most 10 times per second
+                colony.addIterationListener(liveView);
+            }
+            Telemetry telemetry = null;
+            if(!TELEMETRY_FILE.isEmpty()) {
+                telemetry = new Telemetry(false); // the branching factor looks at all edges, so it is not calculated
+                colony.addIterationListener(telemetry);
+            }
 
             long start = System.currentTimeMillis(); // start the timer
-            Ant.solve(); // execute the ant colony optimization method
+            SolverResult result = colony.solve(); // execute the ant colony optimization method
             long end = System.currentTimeMillis(); // end the timer
+            if(liveView != null)
+                liveView.close(); // wait until the last state is drawn
+            if(checkpointWriter != null)
+                checkpointWriter.close(); // wait until the last checkpoint is written
+            if(telemetry != null)
+                telemetry.write(new File(TELEMETRY_FILE)); // save the statistics of every iteration
             double time = (end - start) / 1000.0; // calculate the time it takes to find the shortest path in seconds
 
             // output the results
-            Ant.printResults(time); // print the results to the console
+            result.printResults(time); // print the results to the console
 
             if(chosenGraph == 1)
-                Ant.showThePath(houses); // show the path on the screen
+                result.showThePath(houses); // show the path on the screen
             else if(chosenGraph == 2)
-                Ant.showPheromoneIntensities(houses); // show the pheromone intensities on the screen
+                colony.showPheromoneIntensities(houses, MIN_EDGE_FRACTION, MAX_EDGES); // show the pheromone intensities on the screen
+        }
+
+
+        else if(chosenMethod == 3) { // Held-Karp Dynamic Programming Method
+            long start = System.currentTimeMillis(); // start the timer
+            SolverResult result = HeldKarp.solve(set); // find the exact shortest path for up to 25 houses, if the heap has room for the table (1.6 GB for 25 houses)
+            long end = System.currentTimeMillis(); // end the timer
+            double time = (end - start) / 1000.0; // calculate the time it takes to find the shortest path in seconds
+
+            // output the results
+            result.printResults(time); // print the results to the console
+            result.showThePath(houses); // show the path on the screen
+        }
+
+
+        else if(chosenMethod == 4) { // Cluster Ant Colony Optimization Method for very many houses
+            long start = System.currentTimeMillis(); // start the timer
+            SolverResult result = ClusterSolver.solve(set, config, CLUSTER_SIZE); // solve small clusters of houses and join their paths
+            long end = System.currentTimeMillis(); // end the timer
+            double time = (end - start) / 1000.0; // calculate the time it takes to find the shortest path in seconds
+
+            // output the results
+            result.printResults(time); // print the results to the console
+            result.showThePath(houses); // show the path on the screen
+        }
+
+
+        else if(chosenMethod == 5) { // Island Ant Colony Optimization Method
+            long start = System.currentTimeMillis(); // start the timer
+            IslandSolver islands = new IslandSolver(set, IslandSolver.createConfigs(config, ISLAND_COUNT), MIGRATION_INTERVAL);
+            SolverResult result = islands.solve(); // solve with all islands, which send their shortest paths to each other
+            long end = System.currentTimeMillis(); // end the timer
+            double time = (end - start) / 1000.0; // calculate the time it takes to find the shortest path in seconds
+
+            // output the results
+            result.printResults(time); // print the results to the console
+            result.showThePath(houses); // show the path on the screen
+        }
+
+
+        else if(chosenMethod == 6) { // Tune the constants of the ant colony optimization method
+            ArrayList<HouseSet> samples = new ArrayList<>(); // the problems that the constants are tuned for
+            for(String file : TUNING_FILES)
+                samples.add(HouseSet.read(new File(file)));
+            if(samples.isEmpty())
+                samples.add(set);
+
+            long start = System.currentTimeMillis(); // start the timer
+            AntColonyConfig tuned = new ParameterTuner(samples, config, TUNING_CANDIDATES, TUNING_TOLERANCE).tune(); // race the constants on all cores
+            long end = System.currentTimeMillis(); // end the timer
+            double time = (end - start) / 1000.0; // calculate the time it takes to tune the constants in seconds
+
+            // output the results
+            System.out.println("Tuning time: " + time + " seconds");
+            System.out.println("ITERATION_COUNT = " + tuned.getIterationCount() + ", ANT_COUNT = " + tuned.getAntCount()
+                    + ", DEGRADATION_FACTOR = " + tuned.getDegradationFactor() + ", ALPHA = " + tuned.getAlpha()
+                    + ", BETA = " + tuned.getBeta() + ", Q = " + tuned.getQ());
+            if(!TUNED_CONFIG_FILE.isEmpty())
+                ParameterTuner.write(tuned, Path.of(TUNED_CONFIG_FILE)); // later runs use the tuned constants
         }
     }
-}
\ No newline at end of file
+}
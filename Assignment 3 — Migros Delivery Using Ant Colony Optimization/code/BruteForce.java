@@ -1,32 +1,53 @@
 import java.util.ArrayList;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * The BruteForce class solves the migros delivery problem using the brute force method
+ * The BruteForce class solves the migros delivery problem using the brute force method.
+ * The paths are built house by house, and a path is not continued once it cannot become shorter than the shortest path found so far.
+ * In the parallel mode, the paths are split by their first houses after migros and the parts are searched on all cores.
  */
 public class BruteForce {
-    private static double minDistance = Double.MAX_VALUE; // the minimum distance of the path
+    private static final int PARALLEL_DEPTH = 2; // number of houses after migros that are fixed to split the search into parts
+
+    // the bits of the minimum distance, so that all threads can read it without a lock when they skip paths
+    private static final AtomicLong minDistance = new AtomicLong(Double.doubleToLongBits(Double.MAX_VALUE));
     private static int[] minPermutation; // the order of the houses to visit
+    private static DistanceOracle distances; // distances between the houses, calculated once for every solve
+    private static double[] nearestEdge; // nearestEdge[i] is the length of the shortest edge of house i
 
     /**
-     * Generate all permutations of the array arr starting from index k
-     * @param arr the array
+     * Generate all permutations of the array arr starting from index k, skipping the ones that cannot be shorter than the shortest path.
+     * The houses after the last placed house still need one edge each to go to the next house, and the last placed house needs one too,
+     * so the path cannot be shorter than its current distance plus the shortest edges of these houses.
+     * @param arr the array, arr[0] to arr[k-1] is the path that is built so far
+     * @param placed whether the house is already in the path that is built so far
      * @param k the starting index
-     * @param houses the list of houses
+     * @param distance the distance of the path from arr[0] to arr[k-1]
+     * @param bound the sum of the shortest edges of the houses from arr[k] to the end of the array
      */
-    private static void permute(int[] arr, int k, ArrayList<House> houses) {
+    static void permute(int[] arr, boolean[] placed, int k, double distance, double bound) {
         // Base case: if the first index is equal to the length of the array we have a permutation
         if(k == arr.length) {
-            double distance = calculatePathDistance(arr, houses); // calculate the distance of the path
-            if(distance < minDistance) { // if the distance is less than the minimum distance
-                minDistance = distance; // update the minimum distance
-                minPermutation = arr.clone(); // update the order of the houses to visit
-            }
+            distance += distances.get(arr[k - 1], arr[0]); // return to migros to complete the loop
+            if(distance < getMinDistance()) // if the distance is less than the minimum distance
+                updateShortestPath(arr, distance);
+            return;
         }
 
+        int last = arr[k - 1]; // the last house of the path
+        if(distance + nearestEdge[last] + bound >= getMinDistance())
+            return; // no path starting like this can be shorter than the shortest path
+
         // we generate all permutations by choosing the first element
         for(int i = k; i < arr.length; i++) {
+            int house = arr[i];
+            if(house == 2 && !placed[1])
+                continue; // a path and its reverse have the same distance, so we only look at the ones where house 1 comes before house 2
             swap(arr, i, k); // let arr[k] be the first element
-            permute(arr, k + 1, houses); // then generate all permutations of the rest of the array
+            placed[house] = true;
+            permute(arr, placed, k + 1, distance + distances.get(last, house), bound - nearestEdge[house]); // then generate all permutations of the rest of the array
+            placed[house] = false;
             swap(arr, i, k); // swap back to the original order
         }
     }
@@ -50,16 +71,109 @@ public class BruteForce {
     }
 
     /**
-     * Solve the migros delivery problem using the brute force method
+     * Calculate the distance of the path starting from migros and visiting the houses in the order given in arr
+     * @param arr the order of the houses to visit
+     * @param houses the coordinates of the houses
+     * @return the total distance of the path
+     */
+    public static double calculatePathDistance(int[] arr, HouseSet houses) {
+        return houses.tourLength(arr); // the distance kernel calculates several edges at once
+    }
+
+    /**
+     * Solve the migros delivery problem using the brute force method on one thread
      * @param houses the list of houses
      */
     public static void solve(ArrayList<House> houses) {
-        int[] arr = new int[houses.size()]; // create an array to store the indices of the houses
+        solve(houses, false);
+    }
+
+    /**
+     * Solve the migros delivery problem using the brute force method
+     * @param houses the list of houses
+     * @param parallel true to search the paths on all cores
+     */
+    public static void solve(ArrayList<House> houses, boolean parallel) {
+        solve(HouseSet.of(houses), parallel);
+    }
+
+    /**
+     * Solve the migros delivery problem using the brute force method without creating an object for every house
+     * @param houses the coordinates of the houses
+     * @param parallel true to search the paths on all cores
+     */
+    public static void solve(HouseSet houses, boolean parallel) {
+        int numberOfHouses = houses.size();
+        distances = DistanceOracle.createMatrix(houses, SymmetricMatrix.FULL); // the distances are used many times, so they are calculated once
+        nearestEdge = new double[numberOfHouses];
+
+        double bound = 0; // sum of the shortest edges of the houses other than migros
+        for(int i = 0; i < numberOfHouses; i++) {
+            nearestEdge[i] = numberOfHouses > 1 ? Double.MAX_VALUE : 0;
+            for(int j = 0; j < numberOfHouses; j++)
+                if(j != i)
+                    nearestEdge[i] = Math.min(nearestEdge[i], distances.get(i, j));
+            if(i > 0)
+                bound += nearestEdge[i];
+        }
+
+        findNearestNeighbourPath(numberOfHouses); // a short path to start with, so that more paths can be skipped from the beginning
+
+        int[] arr = new int[numberOfHouses]; // create an array to store the indices of the houses
         for(int i = 0; i < arr.length; i++)
             arr[i] = i; // initialize the array with the indices of the houses
-        permute(arr, 1, houses); // generate all permutations starting from index 1 since we always start from migros and update the minimum distance and the order of the houses to visit
+        boolean[] placed = new boolean[numberOfHouses];
+        placed[0] = true; // we always start from migros
+
+        // generate all permutations starting from index 1 since we always start from migros and update the minimum distance and the order of the houses to visit
+        if(parallel)
+            new PermuteTask(arr, placed, 1, 0, bound).invoke(); // the parts are run by the common fork join pool, idle threads steal the remaining parts
+        else
+            permute(arr, placed, 1, 0, bound);
+    }
+
+    /**
+     * Find the path that always goes to the nearest unvisited house and use it as the shortest path found so far
+     * @param numberOfHouses the number of houses
+     */
+    private static void findNearestNeighbourPath(int numberOfHouses) {
+        boolean[] visited = new boolean[numberOfHouses];
+        int[] path = new int[numberOfHouses];
+        visited[0] = true; // start from migros
+        double distance = 0;
+        for(int k = 1; k < numberOfHouses; k++) {
+            int nearest = -1;
+            for(int i = 0; i < numberOfHouses; i++)
+                if(!visited[i] && (nearest == -1 || distances.get(path[k - 1], i) < distances.get(path[k - 1], nearest)))
+                    nearest = i;
+            path[k] = nearest;
+            visited[nearest] = true;
+            distance += distances.get(path[k - 1], nearest);
+        }
+        minDistance.set(Double.doubleToLongBits(distance + distances.get(path[numberOfHouses - 1], 0))); // return to migros
+        minPermutation = path;
     }
 
+    /**
+     * Get the minimum distance found so far
+     * @return the minimum distance
+     */
+    private static double getMinDistance() {
+        return Double.longBitsToDouble(minDistance.get());
+    }
+
+    /**
+     * Save the path if it is still shorter than the shortest path, which may have been changed by another thread after it was checked.
+     * Shorter paths are found rarely, so the threads can wait for each other here, and the distance and the order always match.
+     * @param arr the order of the houses to visit
+     * @param distance the distance of the path
+     */
+    private static synchronized void updateShortestPath(int[] arr, double distance) {
+        if(distance < getMinDistance()) {
+            minPermutation = arr.clone(); // update the order of the houses to visit
+            minDistance.set(Double.doubleToLongBits(distance)); // update the minimum distance
+        }
+    }
 
     /**
      * Get the shortest path
@@ -79,7 +193,7 @@ public class BruteForce {
      */
     public static void printResults(double time) {
         System.out.println("Method: Brute-Force Method");
-        System.out.printf("Shortest distance: %.5f\n", minDistance);
+        System.out.printf("Shortest distance: %.5f\n", getMinDistance());
         System.out.println("Shortest path: " + getShortestPath());
         System.out.printf("Time it takes to find the shortest path: %.2f seconds\n", time);
     }
@@ -106,4 +220,58 @@ public class BruteForce {
         arr[i] = arr[j]; // assign the element at index j to index i
         arr[j] = temp; // assign the element at index i to index j
     }
+
+    /**
+     * The PermuteTask class searches the permutations with a fixed beginning.
+     * Until PARALLEL_DEPTH houses are fixed after migros, it creates one task for every next house and runs them at the same time.
+     */
+    private static class PermuteTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L; // fork join tasks are serializable, but these are never serialized
+        private final int[] arr; // the array, arr[0] to arr[k-1] is the fixed beginning
+        private final boolean[] placed; // whether the house is in the fixed beginning
+        private final int k; // the starting index
+        private final double distance; // the distance of the fixed beginning
+        private final double bound; // the sum of the shortest edges of the houses that are not fixed
+
+        /**
+         * Create a task for the permutations with a fixed beginning
+         * @param arr the array, the task uses its own copy
+         * @param placed whether the house is in the fixed beginning, the task uses its own copy
+         * @param k the starting index
+         * @param distance the distance of the fixed beginning
+         * @param bound the sum of the shortest edges of the houses that are not fixed
+         */
+        PermuteTask(int[] arr, boolean[] placed, int k, double distance, double bound) {
+            this.arr = arr.clone();
+            this.placed = placed.clone();
+            this.k = k;
+            this.distance = distance;
+            this.bound = bound;
+        }
+
+        /**
+         * Split the search into one task for every next house, or search the rest of the permutations on this thread
+         */
+        @Override
+        protected void compute() {
+            int last = arr[k - 1];
+            if(k > PARALLEL_DEPTH || k == arr.length || distance + nearestEdge[last] + bound >= getMinDistance()) {
+                permute(arr, placed, k, distance, bound);
+                return;
+            }
+
+            ArrayList<PermuteTask> tasks = new ArrayList<>();
+            for(int i = k; i < arr.length; i++) {
+                int house = arr[i];
+                if(house == 2 && !placed[1])
+                    continue; // the reverse of the path is searched by another task
+                swap(arr, i, k);
+                placed[house] = true;
+                tasks.add(new PermuteTask(arr, placed, k + 1, distance + distances.get(last, house), bound - nearestEdge[house]));
+                placed[house] = false;
+                swap(arr, i, k);
+            }
+            invokeAll(tasks);
+        }
+    }
 }
@@ -0,0 +1,89 @@
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The CachedDistances class keeps the distance rows of a limited number of houses.
+ * The row of a house is calculated at once with the distance kernel the first time it is needed, and when there is no room
+ * for a new row, the row that was used least recently is removed.
+ * Reading a cached row does not need a lock, so many ants can use the same cache at the same time.
+ */
+public class CachedDistances implements DistanceOracle {
+    private final HouseSet houses; // the coordinates of the houses
+    private final int capacity; // the maximum number of rows that are kept
+    private final AtomicReferenceArray<double[]> rows; // rows.get(i) is the row of house i, or null if it is not kept
+    private final long[] lastUse; // lastUse[i] is the time the row of house i was used last
+    private final int[] cachedHouses; // the houses whose rows are kept
+    private int cachedCount = 0; // the number of rows that are kept
+    private long time = 0; // counts the uses of the rows, threads may miss each other's counts, which only makes the order a bit less exact
+
+    /**
+     * Create the distance cache of the houses
+     * @param houses the coordinates of the houses
+     * @param capacity the maximum number of rows that are kept, each row has one distance for every house
+     */
+    public CachedDistances(HouseSet houses, int capacity) {
+        if(capacity < 1)
+            throw new IllegalArgumentException("The cache must keep at least one row, but its capacity is " + capacity);
+        this.houses = houses;
+        this.capacity = Math.min(capacity, houses.size());
+        this.rows = new AtomicReferenceArray<>(houses.size());
+        this.lastUse = new long[houses.size()];
+        this.cachedHouses = new int[this.capacity];
+    }
+
+    /**
+     * Get the number of houses
+     * @return the number of houses
+     */
+    @Override
+    public int size() {
+        return houses.size();
+    }
+
+    /**
+     * Get the distance between two houses from the row of one of them, the row of the first house is calculated if neither is kept
+     * @param i the first house
+     * @param j the second house
+     * @return the distance
+     */
+    @Override
+    public double get(int i, int j) {
+        double[] row = rows.get(i);
+        if(row == null) {
+            double[] other = rows.get(j); // the distance from i to j is the same as the distance from j to i
+            if(other != null) {
+                lastUse[j] = ++time;
+                return other[i];
+            }
+            row = loadRow(i);
+        }
+        lastUse[i] = ++time;
+        return row[j];
+    }
+
+    /**
+     * Calculate the row of a house and keep it, removing the least recently used row if the cache is full
+     * @param house the house
+     * @return the row of the house
+     */
+    private synchronized double[] loadRow(int house) {
+        double[] row = rows.get(house);
+        if(row != null)
+            return row; // another thread calculated it while this thread was waiting
+
+        if(cachedCount < capacity)
+            cachedHouses[cachedCount++] = house;
+        else {
+            int oldest = 0; // the index of the least recently used row in cachedHouses
+            for(int k = 1; k < capacity; k++)
+                if(lastUse[cachedHouses[k]] < lastUse[cachedHouses[oldest]])
+                    oldest = k;
+            rows.set(cachedHouses[oldest], null); // threads that are still reading the removed row can finish with it
+            cachedHouses[oldest] = house;
+        }
+
+        row = new double[houses.size()];
+        houses.fillDistanceRow(house, row, 0, houses.size());
+        rows.set(house, row);
+        return row;
+    }
+}
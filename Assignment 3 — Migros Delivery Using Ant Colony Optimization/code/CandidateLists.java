@@ -0,0 +1,144 @@
+import java.util.ArrayList;
+
+/**
+ * The CandidateLists class finds the k nearest houses of every house.
+ * To avoid comparing every pair of houses, the houses are put into a grid of square cells first,
+ * and only the cells around a house are searched for its nearest houses.
+ */
+public class CandidateLists {
+    private final int numberOfHouses; // number of houses
+    private final int candidateCount; // number of candidates of every house
+    private final int[] candidates; // candidates of house i are stored from index i * candidateCount, the nearest first
+
+    /**
+     * Find the nearest houses of every house
+     * @param houses the list of houses
+     * @param candidateCount the number of nearest houses to find for every house
+     */
+    public CandidateLists(ArrayList<House> houses, int candidateCount) {
+        this(HouseSet.of(houses), candidateCount);
+    }
+
+    /**
+     * Find the nearest houses of every house
+     * @param houses the coordinates of the houses
+     * @param candidateCount the number of nearest houses to find for every house
+     */
+    public CandidateLists(HouseSet houses, int candidateCount) {
+        this.numberOfHouses = houses.size();
+        this.candidateCount = Math.min(candidateCount, numberOfHouses - 1); // a house cannot have more candidates than the other houses
+        this.candidates = new int[numberOfHouses * this.candidateCount];
+
+        // find the borders of the area that contains the houses
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for(int i = 0; i < numberOfHouses; i++) {
+            minX = Math.min(minX, houses.getX(i));
+            minY = Math.min(minY, houses.getY(i));
+            maxX = Math.max(maxX, houses.getX(i));
+            maxY = Math.max(maxY, houses.getY(i));
+        }
+
+        // we want about two houses in every cell
+        int cellsPerSide = Math.max(1, (int) Math.sqrt(numberOfHouses / 2.0));
+        double cellSize = Math.max(maxX - minX, maxY - minY) / cellsPerSide;
+        if(cellSize == 0)
+            cellSize = 1; // all houses are at the same point
+
+        // find the cell of every house
+        int[] cellOfHouse = new int[numberOfHouses];
+        int[] cellStart = new int[cellsPerSide * cellsPerSide + 1]; // houses of cell c are stored between cellStart[c] and cellStart[c + 1]
+        for(int i = 0; i < numberOfHouses; i++) {
+            int cellX = Math.min(cellsPerSide - 1, (int) ((houses.getX(i) - minX) / cellSize));
+            int cellY = Math.min(cellsPerSide - 1, (int) ((houses.getY(i) - minY) / cellSize));
+            cellOfHouse[i] = cellY * cellsPerSide + cellX;
+            cellStart[cellOfHouse[i] + 1]++; // count the houses in the cell
+        }
+        for(int c = 0; c < cellsPerSide * cellsPerSide; c++)
+            cellStart[c + 1] += cellStart[c]; // now cellStart[c] is the number of houses in the cells before c
+
+        int[] housesInCells = new int[numberOfHouses]; // houses sorted by their cells
+        int[] nextPosition = cellStart.clone();
+        for(int i = 0; i < numberOfHouses; i++)
+            housesInCells[nextPosition[cellOfHouse[i]]++] = i;
+
+        double[] nearestDistances = new double[this.candidateCount]; // distances of the nearest houses found so far
+        for(int i = 0; i < numberOfHouses; i++) {
+            int cellX = cellOfHouse[i] % cellsPerSide;
+            int cellY = cellOfHouse[i] / cellsPerSide;
+            int found = 0; // number of nearest houses found so far
+
+            // search the cells ring by ring around the cell of the house
+            for(int ring = 0; ring < cellsPerSide; ring++) {
+                for(int y = cellY - ring; y <= cellY + ring; y++) {
+                    if(y < 0 || y >= cellsPerSide)
+                        continue;
+                    // inside the ring we only need the first and the last cell of the row, except for the top and bottom rows
+                    int step = (y == cellY - ring || y == cellY + ring) ? 1 : Math.max(1, 2 * ring);
+                    for(int x = cellX - ring; x <= cellX + ring; x += step) {
+                        if(x < 0 || x >= cellsPerSide)
+                            continue;
+                        int cell = y * cellsPerSide + x;
+                        for(int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                            int other = housesInCells[p];
+                            if(other != i)
+                                found = insert(i, other, houses.distance(i, other), found, nearestDistances);
+                        }
+                    }
+                }
+
+                // the houses in the next ring are at least ring * cellSize away, so they cannot be nearer than the ones we found
+                if(found == this.candidateCount && (found == 0 || nearestDistances[found - 1] <= ring * cellSize))
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Insert a house into the sorted candidates of another house if it is one of the nearest houses found so far
+     * @param house the house whose candidates are updated
+     * @param other the house to insert
+     * @param distance the distance between the two houses
+     * @param found the number of candidates found so far
+     * @param nearestDistances the distances of the candidates found so far
+     * @return the new number of candidates found
+     */
+    private int insert(int house, int other, double distance, int found, double[] nearestDistances) {
+        if(found == candidateCount && (found == 0 || distance >= nearestDistances[found - 1]))
+            return found; // not nearer than the farthest candidate
+
+        int position = Math.min(found, candidateCount - 1); // start from the end and shift the farther candidates to the right
+        while(position > 0 && nearestDistances[position - 1] > distance) {
+            nearestDistances[position] = nearestDistances[position - 1];
+            candidates[house * candidateCount + position] = candidates[house * candidateCount + position - 1];
+            position--;
+        }
+        nearestDistances[position] = distance;
+        candidates[house * candidateCount + position] = other;
+        return Math.min(found + 1, candidateCount);
+    }
+
+    /**
+     * Get the number of candidates of every house
+     * @return the number of candidates
+     */
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    /**
+     * Get the candidates of all houses, the candidates of house i are stored from index i * getCandidateCount()
+     * @return the candidates of all houses, the nearest first
+     */
+    public int[] getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * Get the index of the first candidate of the house in the array returned by getCandidates()
+     * @param house the house
+     * @return the index of the first candidate
+     */
+    public int getOffset(int house) {
+        return house * candidateCount;
+    }
+}
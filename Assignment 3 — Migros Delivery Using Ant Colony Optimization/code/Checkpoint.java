@@ -0,0 +1,256 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The Checkpoint class is a copy of the state of a colony, so that a long solve can continue after the program is restarted.
+ * It stores the seed, the iteration counter, the shortest tour and the stored pheromones with their scale.
+ * The random numbers of an iteration only depend on the seed and the iteration number, so they do not need to be stored.
+ * A checkpoint file starts with the bytes "ACOC", a version number and the header values, followed by the tour as little endian ints
+ * and the lower half of the pheromone matrix, row by row with the diagonal, as little endian doubles.
+ * A checkpoint cannot be changed after it is created, so it can be given to another thread to be written.
+ */
+public class Checkpoint {
+    private static final int MAGIC = 0x434F4341; // the bytes "ACOC" at the start of a checkpoint file, read as a little endian int
+    private static final int VERSION = 1; // the version of the checkpoint format
+    private static final int HEADER_SIZE = 52; // magic, version, houses, seed, iteration, solve start, last improvement, distance, scale, tour length
+    private static final int BUFFER_SIZE = 1 << 20; // the number of bytes written or read at once, a multiple of 8
+
+    private final long seed; // the seed of the colony
+    private final int numberOfHouses; // the number of houses of the colony
+    private final int iteration; // the number of iterations done, which is also the next iteration
+    private final int solveStart; // the iteration in which the solve started
+    private final int lastImprovement; // the iteration in which the shortest tour was found
+    private final double minDistance; // the length of the shortest tour
+    private final double pheromoneScale; // the real pheromone of an edge is the stored pheromone times this scale
+    private final int[] tour; // the indices of the houses in the shortest tour, the first house is repeated at the end, empty if there is no tour
+    private final double[] pheromones; // the stored pheromones of the lower half of the matrix with the diagonal, row by row
+
+    /**
+     * Create a checkpoint, the arrays are not copied
+     * @param seed the seed of the colony
+     * @param numberOfHouses the number of houses of the colony
+     * @param iteration the number of iterations done
+     * @param solveStart the iteration in which the solve started
+     * @param lastImprovement the iteration in which the shortest tour was found
+     * @param minDistance the length of the shortest tour
+     * @param pheromoneScale the scale of the stored pheromones
+     * @param tour the shortest tour
+     * @param pheromones the stored pheromones
+     */
+    Checkpoint(long seed, int numberOfHouses, int iteration, int solveStart, int lastImprovement, double minDistance,
+               double pheromoneScale, int[] tour, double[] pheromones) {
+        if(pheromones.length != (long) numberOfHouses * (numberOfHouses + 1) / 2)
+            throw new IllegalArgumentException("A checkpoint of " + numberOfHouses + " houses cannot have " + pheromones.length + " pheromones");
+        this.seed = seed;
+        this.numberOfHouses = numberOfHouses;
+        this.iteration = iteration;
+        this.solveStart = solveStart;
+        this.lastImprovement = lastImprovement;
+        this.minDistance = minDistance;
+        this.pheromoneScale = pheromoneScale;
+        this.tour = tour;
+        this.pheromones = pheromones;
+    }
+
+    /**
+     * Write the checkpoint into a file. It is written into a temporary file first, which then replaces the file,
+     * so the file always contains a whole checkpoint even if the program stops while writing.
+     * The file is written through a buffer instead of being mapped, because a mapped file cannot be replaced on some systems.
+     * @param path the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(numberOfHouses).putLong(seed)
+                    .putInt(iteration).putInt(solveStart).putInt(lastImprovement)
+                    .putDouble(minDistance).putDouble(pheromoneScale).putInt(tour.length);
+            for(int i = 0; i < tour.length; ) {
+                if(buffer.remaining() < 4)
+                    drain(channel, buffer);
+                int count = Math.min(tour.length - i, buffer.remaining() / 4);
+                buffer.asIntBuffer().put(tour, i, count);
+                buffer.position(buffer.position() + 4 * count);
+                i += count;
+            }
+            for(int k = 0; k < pheromones.length; ) {
+                if(buffer.remaining() < 8)
+                    drain(channel, buffer);
+                int count = Math.min(pheromones.length - k, buffer.remaining() / 8);
+                buffer.asDoubleBuffer().put(pheromones, k, count);
+                buffer.position(buffer.position() + 8 * count);
+                k += count;
+            }
+            drain(channel, buffer);
+            channel.force(true); // the bytes are on the disk before the temporary file replaces the file
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Write the bytes that were put into a buffer into a file, and empty the buffer
+     * @param channel the file
+     * @param buffer the buffer
+     * @throws IOException if the file cannot be written
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while(buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Read a checkpoint file
+     * @param path the path of the file
+     * @return the checkpoint
+     * @throws IOException if the file cannot be read or is not a valid checkpoint file
+     */
+    public static Checkpoint read(Path path) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if(size < HEADER_SIZE)
+                throw new IOException("Not a checkpoint file");
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            fill(channel, buffer, HEADER_SIZE);
+            if(buffer.getInt() != MAGIC)
+                throw new IOException("Not a checkpoint file");
+            int version = buffer.getInt();
+            if(version != VERSION)
+                throw new IOException("Unknown checkpoint file version " + version);
+            int numberOfHouses = buffer.getInt();
+            long seed = buffer.getLong();
+            int iteration = buffer.getInt(), solveStart = buffer.getInt(), lastImprovement = buffer.getInt();
+            double minDistance = buffer.getDouble(), pheromoneScale = buffer.getDouble();
+            int tourLength = buffer.getInt();
+
+            long pheromoneCount = (long) numberOfHouses * (numberOfHouses + 1) / 2;
+            long tourEnd = HEADER_SIZE + 4L * tourLength;
+            if(numberOfHouses < 0 || tourLength < 0 || pheromoneCount > Integer.MAX_VALUE || size != tourEnd + 8 * pheromoneCount)
+                throw new IOException("The checkpoint file of " + numberOfHouses + " houses has the wrong size " + size + " bytes");
+
+            int[] tour = new int[tourLength];
+            for(int i = 0; i < tourLength; ) {
+                int count = Math.min(tourLength - i, BUFFER_SIZE / 4);
+                fill(channel, buffer, 4 * count);
+                buffer.asIntBuffer().get(tour, i, count);
+                i += count;
+            }
+            double[] pheromones = new double[(int) pheromoneCount];
+            for(int k = 0; k < pheromones.length; ) {
+                int count = Math.min(pheromones.length - k, BUFFER_SIZE / 8);
+                fill(channel, buffer, 8 * count);
+                buffer.asDoubleBuffer().get(pheromones, k, count);
+                k += count;
+            }
+            return new Checkpoint(seed, numberOfHouses, iteration, solveStart, lastImprovement, minDistance, pheromoneScale, tour, pheromones);
+        }
+    }
+
+    /**
+     * Read the next bytes of a file into a buffer, the buffer is ready to be read from its start
+     * @param channel the file
+     * @param buffer the buffer
+     * @param length the number of bytes to read, at most the capacity of the buffer
+     * @throws IOException if the file cannot be read or ends too early
+     */
+    private static void fill(FileChannel channel, ByteBuffer buffer, int length) throws IOException {
+        buffer.clear().limit(length);
+        while(buffer.hasRemaining())
+            if(channel.read(buffer) < 0)
+                throw new IOException("The checkpoint file ends too early");
+        buffer.flip();
+    }
+
+    /**
+     * Get the seed of the colony
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the number of houses of the colony
+     * @return the number of houses
+     */
+    public int getNumberOfHouses() {
+        return numberOfHouses;
+    }
+
+    /**
+     * Get the number of iterations done, which is also the index of the next iteration
+     * @return the iteration counter
+     */
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * Get the iteration in which the solve started
+     * @return the first iteration of the solve
+     */
+    public int getSolveStart() {
+        return solveStart;
+    }
+
+    /**
+     * Get the iteration in which the shortest tour was found
+     * @return the iteration of the last improvement
+     */
+    public int getLastImprovement() {
+        return lastImprovement;
+    }
+
+    /**
+     * Get the length of the shortest tour
+     * @return the minimum distance
+     */
+    public double getMinDistance() {
+        return minDistance;
+    }
+
+    /**
+     * Get the scale of the stored pheromones
+     * @return the pheromone scale
+     */
+    public double getPheromoneScale() {
+        return pheromoneScale;
+    }
+
+    /**
+     * Get the number of houses in the shortest tour, the first house is counted twice
+     * @return the tour length, 0 if there is no tour
+     */
+    public int getTourLength() {
+        return tour.length;
+    }
+
+    /**
+     * Get a house of the shortest tour
+     * @param i the position in the tour
+     * @return the index of the house
+     */
+    public int getTourHouse(int i) {
+        return tour[i];
+    }
+
+    /**
+     * Get a stored pheromone of the lower half of the matrix, the pheromone of [i][j] with j <= i is at index i * (i + 1) / 2 + j
+     * @param k the index of the pheromone
+     * @return the stored pheromone
+     */
+    public double getPheromone(int k) {
+        return pheromones[k];
+    }
+}
@@ -0,0 +1,85 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The CheckpointWriter class saves a checkpoint of a colony every few iterations while the colony is solving.
+ * The colony's thread only copies the state, and a separate thread writes the copies into the file.
+ * If a new copy is made before the old one is written, the old one is skipped, so the solve never waits for the disk.
+ * The copy itself is not free: it copies all pheromones on the colony's thread, so for many houses the interval should be long.
+ */
+public final class CheckpointWriter implements IterationListener, AutoCloseable {
+    private final Path path; // the checkpoint file
+    private final int interval; // a checkpoint is made after every this many iterations
+    private final AtomicReference<Checkpoint> latestCheckpoint = new AtomicReference<>(); // the newest copy that is not written yet, or null
+    private final Thread writeThread; // the thread that writes the copies
+    private volatile boolean running = true; // false after close is called
+    private volatile IOException failure; // the first error of the writing thread, or null
+
+    /**
+     * Create a checkpoint writer and start its writing thread
+     * @param path the checkpoint file, it is replaced by every checkpoint
+     * @param interval the number of iterations between two checkpoints
+     */
+    public CheckpointWriter(Path path, int interval) {
+        if(interval < 1)
+            throw new IllegalArgumentException("The checkpoint interval must be at least 1, but it is " + interval);
+        this.path = path;
+        this.interval = interval;
+        this.writeThread = new Thread(this::write, "checkpoint-writer");
+        this.writeThread.setDaemon(true); // the program can end even if the writer is not closed
+        this.writeThread.start();
+    }
+
+    /**
+     * Make a copy of the state of the colony after every interval iterations
+     * @param colony the colony
+     * @param stats the statistics of the iteration that finished
+     */
+    @Override
+    public void iterationFinished(AntColony colony, IterationStats stats) {
+        if((stats.getIteration() + 1) % interval != 0)
+            return;
+        latestCheckpoint.set(colony.checkpoint()); // an old copy is replaced
+        LockSupport.unpark(writeThread); // wake the writing thread if it is waiting
+    }
+
+    /**
+     * Write the copies until the writer is closed
+     */
+    private void write() {
+        while(true) {
+            Checkpoint checkpoint = latestCheckpoint.getAndSet(null);
+            if(checkpoint != null) {
+                try {
+                    checkpoint.write(path);
+                } catch(IOException e) {
+                    if(failure == null)
+                        failure = e; // the colony goes on, the error is reported by close
+                }
+            }
+            else if(!running)
+                break; // the last copy is written
+            else
+                LockSupport.park(this); // wait for the next copy
+        }
+    }
+
+    /**
+     * Stop the writer after the last copy is written
+     * @throws IOException if a checkpoint could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(writeThread);
+        try {
+            writeThread.join();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if(failure != null)
+            throw failure;
+    }
+}
@@ -0,0 +1,269 @@
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+
+/**
+ * The ClusterSolver class solves very large migros delivery problems by dividing the houses into small clusters.
+ * A single colony needs n^2 pheromones and distances, which is too much for tens of thousands of houses,
+ * so the houses are split into clusters of nearby houses, every cluster is solved by its own colony on all cores,
+ * and the tours of the clusters are joined in the order found by a colony that visits the centers of the clusters.
+ * At last, the local search repairs the tour around the places where two clusters are joined.
+ * Every colony only needs clusterSize^2 memory, so the memory and the time grow almost linearly with the number of houses.
+ */
+public class ClusterSolver {
+    public static final String METHOD = "Cluster Ant Colony Optimization Method"; // name of the method in the results
+    private static final int REPAIR_CANDIDATES = 10; // number of nearest houses used by the local search if the config does not give a candidate count
+
+    /**
+     * Solve the migros delivery problem by solving clusters of houses separately and joining their tours
+     * @param houses the list of houses, the first one is migros
+     * @param config the constants of the colonies, the ants of a colony travel one after another since the clusters are solved in parallel
+     * @param clusterSize the maximum number of houses in a cluster
+     * @return the shortest path found
+     */
+    public static SolverResult solve(ArrayList<House> houses, AntColonyConfig config, int clusterSize) {
+        return solve(HouseSet.of(houses), config, clusterSize);
+    }
+
+    /**
+     * Solve the migros delivery problem by solving clusters of houses separately and joining their tours,
+     * without creating an object for every house
+     * @param set the coordinates of the houses, the first one is migros
+     * @param config the constants of the colonies, the ants of a colony travel one after another since the clusters are solved in parallel
+     * @param clusterSize the maximum number of houses in a cluster
+     * @return the shortest path found
+     */
+    public static SolverResult solve(HouseSet set, AntColonyConfig config, int clusterSize) {
+        if(clusterSize < 4)
+            throw new IllegalArgumentException("A cluster must have at least 4 houses, but the cluster size is " + clusterSize);
+        int numberOfHouses = set.size();
+        if(numberOfHouses <= clusterSize) { // a single colony can solve it
+            SolverResult result = new AntColony(config, set).solve();
+            return new SolverResult(METHOD, result.getDistance(), result.getPath());
+        }
+
+        int[] order = new int[numberOfHouses]; // the houses sorted by their clusters
+        for(int i = 0; i < numberOfHouses; i++)
+            order[i] = i;
+        ArrayList<Integer> clusterStart = new ArrayList<>(); // houses of cluster c are stored between clusterStart[c] and clusterStart[c + 1] in order
+        split(set, order, 0, numberOfHouses, clusterSize, clusterStart);
+        clusterStart.add(numberOfHouses);
+        int clusterCount = clusterStart.size() - 1;
+
+        // solve every cluster with its own colony, every cluster gets its own seed so that the solve can be repeated
+        AntColonyConfig clusterConfig = config.withParallel(false);
+        int[][] cycles = IntStream.range(0, clusterCount).parallel()
+                .mapToObj(c -> solveCluster(set, order, clusterStart.get(c), clusterStart.get(c + 1), clusterConfig.withSeed(config.getSeed() + c)))
+                .toArray(int[][]::new);
+
+        // find the order of the clusters by solving the centers of the clusters as houses
+        double[] centerX = new double[clusterCount], centerY = new double[clusterCount];
+        for(int c = 0; c < clusterCount; c++) {
+            for(int house : cycles[c]) {
+                centerX[c] += set.getX(house) / cycles[c].length;
+                centerY[c] += set.getY(house) / cycles[c].length;
+            }
+        }
+        HouseSet centers = new HouseSet(centerX, centerY);
+        int[] clusterOrder = new int[clusterCount];
+        for(int c = 0; c < clusterCount; c++)
+            clusterOrder[c] = c;
+        if(clusterCount > 3) { // three clusters or fewer can be visited in any order
+            SolverResult centerResult = new AntColony(config.withSeed(config.getSeed() + clusterCount), centers).solve();
+            for(int c = 0; c < clusterCount; c++)
+                clusterOrder[c] = centerResult.getPath().get(c) - 1;
+        }
+
+        // join the tours of the clusters, the houses where two clusters meet are checked first by the local search
+        int[] tour = new int[numberOfHouses];
+        int[] seams = stitch(set, cycles, clusterOrder, centerX, centerY, tour);
+        DistanceOracle distances = DistanceOracle.create(DistanceOracle.ON_THE_FLY, set, SymmetricMatrix.FULL, 0); // a matrix would need n^2 memory
+        CandidateLists neighbours = new CandidateLists(set, config.getCandidateCount() > 0 ? config.getCandidateCount() : REPAIR_CANDIDATES);
+        double distance = new LocalSearch(distances, neighbours).improve(tour, seams);
+
+        // start the tour at migros, so that fromTour does not have to turn it around one house at a time
+        ArrayList<Integer> tourList = new ArrayList<>(numberOfHouses + 1);
+        int migros = 0;
+        while(tour[migros] != 0)
+            migros++;
+        for(int i = 0; i <= numberOfHouses; i++)
+            tourList.add(tour[(migros + i) % numberOfHouses]);
+        return SolverResult.fromTour(METHOD, distance, tourList);
+    }
+
+    /**
+     * Split a range of houses into clusters by cutting it in half across its longer side until every part is small enough.
+     * The halves have the same number of houses, so every cluster has between clusterSize / 2 and clusterSize houses.
+     * @param set the houses
+     * @param order the indices of the houses, the range is reordered so that the houses of every cluster are next to each other
+     * @param from the index of the first house of the range in order
+     * @param to the index after the last house of the range in order
+     * @param clusterSize the maximum number of houses in a cluster
+     * @param clusterStart the list that gets the index of the first house of every cluster in order
+     */
+    private static void split(HouseSet set, int[] order, int from, int to, int clusterSize, ArrayList<Integer> clusterStart) {
+        if(to - from <= clusterSize) {
+            clusterStart.add(from);
+            return;
+        }
+
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for(int i = from; i < to; i++) {
+            minX = Math.min(minX, set.getX(order[i]));
+            minY = Math.min(minY, set.getY(order[i]));
+            maxX = Math.max(maxX, set.getX(order[i]));
+            maxY = Math.max(maxY, set.getY(order[i]));
+        }
+        boolean byX = maxX - minX >= maxY - minY; // cut across the longer side, so that the clusters stay close to squares
+
+        int middle = (from + to) >>> 1;
+        select(set, order, from, to, middle, byX);
+        split(set, order, from, middle, clusterSize, clusterStart);
+        split(set, order, middle, to, clusterSize, clusterStart);
+    }
+
+    /**
+     * Reorder a range of houses so that the house at index k is the one that would be there if the range was sorted by one coordinate,
+     * the houses before it are not after it and the houses after it are not before it (quickselect)
+     * @param set the houses
+     * @param order the indices of the houses
+     * @param from the index of the first house of the range in order
+     * @param to the index after the last house of the range in order
+     * @param k the index of the house to find
+     * @param byX true to compare the x coordinates, false to compare the y coordinates
+     */
+    private static void select(HouseSet set, int[] order, int from, int to, int k, boolean byX) {
+        int left = from, right = to - 1;
+        while(left < right) {
+            double pivot = coordinate(set, order[(left + right) >>> 1], byX);
+            int i = left, j = right;
+            while(i <= j) {
+                while(coordinate(set, order[i], byX) < pivot)
+                    i++;
+                while(coordinate(set, order[j], byX) > pivot)
+                    j--;
+                if(i <= j) {
+                    int temp = order[i];
+                    order[i] = order[j];
+                    order[j] = temp;
+                    i++;
+                    j--;
+                }
+            }
+            // now the houses up to j are not after the pivot and the houses from i are not before it
+            if(k <= j)
+                right = j;
+            else if(k >= i)
+                left = i;
+            else
+                return;
+        }
+    }
+
+    /**
+     * Get one coordinate of a house
+     * @param set the houses
+     * @param house the index of the house
+     * @param byX true for the x coordinate, false for the y coordinate
+     * @return the coordinate
+     */
+    private static double coordinate(HouseSet set, int house, boolean byX) {
+        return byX ? set.getX(house) : set.getY(house);
+    }
+
+    /**
+     * Solve one cluster with its own colony
+     * @param set all houses
+     * @param order the indices of the houses sorted by their clusters
+     * @param from the index of the first house of the cluster in order
+     * @param to the index after the last house of the cluster in order
+     * @param config the constants of the colony
+     * @return the indices of the houses of the cluster in the order of its tour
+     */
+    private static int[] solveCluster(HouseSet set, int[] order, int from, int to, AntColonyConfig config) {
+        int size = to - from;
+        int[] cycle = new int[size];
+        if(size <= 3) { // every order of three houses or fewer has the same length
+            System.arraycopy(order, from, cycle, 0, size);
+            return cycle;
+        }
+
+        double[] xs = new double[size], ys = new double[size];
+        for(int i = from; i < to; i++) {
+            xs[i - from] = set.getX(order[i]);
+            ys[i - from] = set.getY(order[i]);
+        }
+        HouseSet clusterHouses = new HouseSet(xs, ys);
+        SolverResult result = new AntColony(config, clusterHouses).solve();
+        for(int i = 0; i < size; i++)
+            cycle[i] = order[from + result.getPath().get(i) - 1]; // the path stores house numbers of the cluster, which start from 1
+        return cycle;
+    }
+
+    /**
+     * Join the tours of the clusters into one tour. Every tour is opened at the edge that gives the shortest way
+     * from the last house of the previous cluster, through the cluster, towards the center of the next cluster,
+     * and it is walked forward or backward, whichever is shorter.
+     * @param set the houses
+     * @param cycles the tours of the clusters
+     * @param clusterOrder the order of the clusters
+     * @param centerX the x coordinates of the centers of the clusters
+     * @param centerY the y coordinates of the centers of the clusters
+     * @param tour the array that gets the joined tour
+     * @return the first and the last house of every cluster in the joined tour
+     */
+    private static int[] stitch(HouseSet set, int[][] cycles, int[] clusterOrder, double[] centerX, double[] centerY, int[] tour) {
+        int clusterCount = clusterOrder.length;
+        int[] seams = new int[2 * clusterCount];
+        int last = clusterOrder[clusterCount - 1];
+        double previousX = centerX[last], previousY = centerY[last]; // the first cluster is entered from the last one
+        int length = 0;
+
+        for(int p = 0; p < clusterCount; p++) {
+            int[] cycle = cycles[clusterOrder[p]];
+            int next = clusterOrder[(p + 1) % clusterCount];
+            int m = cycle.length;
+
+            // remove the edge between cycle[j] and cycle[j + 1] that costs the least
+            int bestEdge = 0;
+            boolean bestForward = true;
+            double bestCost = Double.MAX_VALUE;
+            for(int j = 0; j < m; j++) {
+                int a = cycle[j], b = cycle[(j + 1) % m];
+                double removed = m > 1 ? set.distance(a, b) : 0;
+                double forward = distance(set, b, previousX, previousY) + distance(set, a, centerX[next], centerY[next]) - removed; // enter at b, leave at a
+                double backward = distance(set, a, previousX, previousY) + distance(set, b, centerX[next], centerY[next]) - removed; // enter at a, leave at b
+                if(forward < bestCost) {
+                    bestCost = forward;
+                    bestEdge = j;
+                    bestForward = true;
+                }
+                if(backward < bestCost) {
+                    bestCost = backward;
+                    bestEdge = j;
+                    bestForward = false;
+                }
+            }
+
+            seams[2 * p] = bestForward ? cycle[(bestEdge + 1) % m] : cycle[bestEdge];
+            for(int i = 0; i < m; i++)
+                tour[length++] = bestForward ? cycle[(bestEdge + 1 + i) % m] : cycle[(bestEdge - i + m) % m];
+            seams[2 * p + 1] = tour[length - 1];
+            previousX = set.getX(tour[length - 1]);
+            previousY = set.getY(tour[length - 1]);
+        }
+        return seams;
+    }
+
+    /**
+     * Calculate the distance between a house and a point
+     * @param set the houses
+     * @param house the index of the house
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return the distance
+     */
+    private static double distance(HouseSet set, int house, double x, double y) {
+        double dx = set.getX(house) - x, dy = set.getY(house) - y;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
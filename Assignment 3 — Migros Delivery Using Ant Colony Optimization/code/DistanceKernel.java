@@ -0,0 +1,25 @@
+/**
+ * The DistanceKernel interface calculates many distances between houses at once from their coordinate arrays.
+ * HouseSet uses the vector kernel if it is compiled and the jdk.incubator.vector module is added, and the scalar kernel otherwise.
+ */
+public interface DistanceKernel {
+    /**
+     * Calculate the distances from one house to a range of houses
+     * @param xs the x coordinates of the houses
+     * @param ys the y coordinates of the houses
+     * @param from the index of the house
+     * @param row the array that gets the distances, row[j] is the distance from the house to house j
+     * @param start the index of the first house of the range
+     * @param end the index after the last house of the range
+     */
+    void fillRow(double[] xs, double[] ys, int from, double[] row, int start, int end);
+
+    /**
+     * Calculate the length of a closed tour
+     * @param xs the x coordinates of the houses
+     * @param ys the y coordinates of the houses
+     * @param tour the order of the houses
+     * @return the length of the tour including the edge from the last house back to the first house
+     */
+    double tourLength(double[] xs, double[] ys, int[] tour);
+}
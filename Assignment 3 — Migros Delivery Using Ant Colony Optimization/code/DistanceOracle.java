@@ -0,0 +1,66 @@
+import java.util.stream.IntStream;
+
+/**
+ * The DistanceOracle interface gives the distance between two houses to the solvers.
+ * A precomputed matrix is the fastest, but it needs n * n values. For many houses, the distances can be calculated from the coordinates
+ * every time they are needed, or the rows of the houses that were used recently can be kept.
+ * An ant colony keeps other n * n matrices besides the distances, so the oracles without a matrix mostly help the solvers
+ * that only need distances, such as the local search that repairs the tour of the ClusterSolver.
+ */
+public interface DistanceOracle {
+    int MATRIX = 1; // all distances are calculated in parallel before the solve and stored in a SymmetricMatrix
+    int ON_THE_FLY = 2; // every distance is calculated from the coordinates when it is needed, no memory is used for the distances
+    int CACHED_ROWS = 3; // the rows of the recently used houses are kept, the other distances are calculated when they are needed
+
+    /**
+     * Create a distance oracle for the houses
+     * @param oracle MATRIX, ON_THE_FLY or CACHED_ROWS
+     * @param houses the coordinates of the houses
+     * @param storage how the matrix is stored if the oracle is MATRIX, SymmetricMatrix.FULL, TRIANGULAR or FLOAT_TRIANGULAR
+     * @param cachedRows the number of rows that are kept if the oracle is CACHED_ROWS
+     * @return the distance oracle
+     */
+    static DistanceOracle create(int oracle, HouseSet houses, int storage, int cachedRows) {
+        if(oracle == MATRIX)
+            return createMatrix(houses, storage);
+        else if(oracle == ON_THE_FLY)
+            return new OnTheFlyDistances(houses);
+        else if(oracle == CACHED_ROWS)
+            return new CachedDistances(houses, cachedRows);
+        throw new IllegalArgumentException("Unknown distance oracle: " + oracle);
+    }
+
+    /**
+     * Create the distance matrix of the houses. The rows are calculated at the same time on all cores,
+     * and every row only calculates the distances to the houses before it, since the distance from i to j is the same as from j to i.
+     * @param houses the coordinates of the houses
+     * @param storage SymmetricMatrix.FULL, TRIANGULAR or FLOAT_TRIANGULAR
+     * @return the distance matrix
+     */
+    static SymmetricMatrix createMatrix(HouseSet houses, int storage) {
+        int numberOfHouses = houses.size();
+        SymmetricMatrix distances = SymmetricMatrix.create(storage, numberOfHouses); // the distance between the same house is 0 already
+        ThreadLocal<double[]> rows = ThreadLocal.withInitial(() -> new double[numberOfHouses]); // one row buffer for every thread
+        IntStream.range(0, numberOfHouses).parallel().forEach(i -> {
+            double[] row = rows.get();
+            houses.fillDistanceRow(i, row, 0, i);
+            for(int j = 0; j < i; j++)
+                distances.set(i, j, row[j]); // every thread writes different cells of the matrix
+        });
+        return distances;
+    }
+
+    /**
+     * Get the number of houses
+     * @return the number of houses
+     */
+    int size();
+
+    /**
+     * Get the distance between two houses
+     * @param i the first house
+     * @param j the second house
+     * @return the distance
+     */
+    double get(int i, int j);
+}
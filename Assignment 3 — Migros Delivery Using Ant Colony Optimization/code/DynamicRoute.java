@@ -0,0 +1,89 @@
+import java.util.ArrayList;
+
+/**
+ * The DynamicRoute class keeps a route whose houses change during the day, when orders are added or cancelled.
+ * Instead of solving the new route from the beginning, the colony keeps its pheromones and its shortest path,
+ * only the distances of a new house are calculated, and the new route is solved with a few iterations.
+ * The list of houses is changed in place, so the screen and other listeners that use it see the new houses.
+ * It is changed only after the new colony is built, so a failed change leaves the list and the colony as they were.
+ */
+public class DynamicRoute {
+    private final ArrayList<House> houses; // the houses of the route, the first one is migros
+    private final int replanIterations; // the number of iterations after a house is added or removed
+    private AntColony colony; // the colony of the current houses
+
+    /**
+     * Create a route
+     * @param config the constants of the ant colony optimization method
+     * @param houses the houses of the route, the first one is migros. The list is changed when houses are added or removed
+     * @param replanIterations the number of iterations after a house is added or removed
+     */
+    public DynamicRoute(AntColonyConfig config, ArrayList<House> houses, int replanIterations) {
+        this.houses = houses;
+        this.replanIterations = replanIterations;
+        this.colony = new AntColony(config, houses);
+    }
+
+    /**
+     * Solve the route from the beginning with the iteration count of the config
+     * @return the shortest path
+     */
+    public SolverResult solve() {
+        return colony.solve();
+    }
+
+    /**
+     * Add a house to the end of the route and find the new shortest path from the old one
+     * @param house the new house
+     * @return the shortest path of the new route
+     */
+    public SolverResult addHouse(House house) {
+        ArrayList<House> changed = new ArrayList<>(houses);
+        changed.add(house);
+        AntColony next = colony.withHouseAdded(changed); // the route is only changed if the new colony can be built
+        houses.add(house);
+        colony = next;
+        return colony.solve(replanIterations);
+    }
+
+    /**
+     * Remove a house from the route and find the new shortest path from the old one.
+     * The houses after it move one place forward, so their numbers become one smaller.
+     * @param index the index of the house, migros cannot be removed
+     * @return the shortest path of the new route
+     */
+    public SolverResult removeHouse(int index) {
+        if(index < 1 || index >= houses.size())
+            throw new IllegalArgumentException("House " + index + " cannot be removed from a route of " + houses.size() + " houses");
+        ArrayList<House> changed = new ArrayList<>(houses);
+        changed.remove(index);
+        AntColony next = colony.withHouseRemoved(changed, index); // the route is only changed if the new colony can be built
+        houses.remove(index);
+        colony = next;
+        return colony.solve(replanIterations);
+    }
+
+    /**
+     * Get the houses of the route
+     * @return the list of houses, which must not be changed except by this route
+     */
+    public ArrayList<House> getHouses() {
+        return houses;
+    }
+
+    /**
+     * Get the colony of the current houses, it is replaced every time a house is added or removed
+     * @return the colony
+     */
+    public AntColony getColony() {
+        return colony;
+    }
+
+    /**
+     * Get the shortest path of the current houses
+     * @return the shortest path, or null if the route is not solved yet
+     */
+    public SolverResult getBestResult() {
+        return colony.getBestResult();
+    }
+}
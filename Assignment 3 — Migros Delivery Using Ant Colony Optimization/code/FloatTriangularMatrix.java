@@ -0,0 +1,32 @@
+/**
+ * The FloatTriangularMatrix class stores only the lower half of a symmetric matrix in one flat float array.
+ * It uses half of the memory of a TriangularMatrix, but the values are rounded to float precision.
+ */
+public class FloatTriangularMatrix implements SymmetricMatrix {
+    private final int size; // number of rows and columns
+    private final float[] values; // the value at [i][j] with j <= i is stored at index i * (i + 1) / 2 + j
+
+    /**
+     * Create a matrix with all values 0
+     * @param size the number of rows and columns
+     */
+    public FloatTriangularMatrix(int size) {
+        this.size = size;
+        this.values = new float[TriangularMatrix.length(size)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return values[TriangularMatrix.index(i, j)];
+    }
+
+    @Override
+    public void set(int i, int j, double value) {
+        values[TriangularMatrix.index(i, j)] = (float) value;
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * The FullMatrix class stores a symmetric matrix in one flat array row by row.
+ * Every value is stored twice, so a row can be read from consecutive memory.
+ */
+public class FullMatrix implements SymmetricMatrix {
+    private final int size; // number of rows and columns
+    private final double[] values; // the value at [i][j] is stored at index i * size + j
+
+    /**
+     * Create a matrix with all values 0
+     * @param size the number of rows and columns
+     */
+    public FullMatrix(int size) {
+        if((long) size * size > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Matrix is too large for full storage: " + size);
+        this.size = size;
+        this.values = new double[size * size];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return values[i * size + j];
+    }
+
+    /**
+     * Get the array of the values, row i starts at index i * size()
+     * @return the values, which are not copied
+     */
+    double[] getValues() {
+        return values;
+    }
+
+    @Override
+    public void set(int i, int j, double value) {
+        values[i * size + j] = value;
+        values[j * size + i] = value; // keep the matrix symmetric
+    }
+}
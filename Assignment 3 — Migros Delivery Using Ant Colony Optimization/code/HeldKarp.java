@@ -0,0 +1,150 @@
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+
+/**
+ * The HeldKarp class solves the migros delivery problem exactly with the Held-Karp dynamic programming method.
+ * Instead of trying all (n-1)! orders like the brute force method, it finds the shortest path that starts at migros,
+ * visits a set of houses and ends at a given house, for every set and every last house. This takes about n^2 * 2^n steps,
+ * so routes of up to 25 houses can be solved if the heap is big enough for the table.
+ */
+public class HeldKarp {
+    public static final int MAX_HOUSES = 25; // the table of 2^24 * 24 floats for 25 houses already takes 1.6 GB, 22 houses need 176 MB
+
+    /**
+     * Solve the migros delivery problem with the Held-Karp method
+     * @param houses the list of houses, the first one is migros
+     * @return the shortest path
+     */
+    public static SolverResult solve(ArrayList<House> houses) {
+        return solve(HouseSet.of(houses));
+    }
+
+    /**
+     * Solve the migros delivery problem with the Held-Karp method without creating an object for every house
+     * @param houses the coordinates of the houses, the first one is migros
+     * @return the shortest path
+     */
+    public static SolverResult solve(HouseSet houses) {
+        int numberOfHouses = houses.size();
+        if(numberOfHouses > MAX_HOUSES)
+            throw new IllegalArgumentException("Held-Karp can solve at most " + MAX_HOUSES + " houses, but there are " + numberOfHouses);
+        long tableBytes = tableBytes(numberOfHouses);
+        Runtime runtime = Runtime.getRuntime();
+        long freeBytes = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory()); // the heap that can still be used
+        if(tableBytes > freeBytes)
+            throw new IllegalStateException("Held-Karp needs " + (tableBytes >> 20) + " MB for " + numberOfHouses + " houses, but only "
+                    + (freeBytes >> 20) + " MB of the heap are free. Use fewer houses or a bigger heap with -Xmx");
+
+        DistanceOracle distances = DistanceOracle.createMatrix(houses, SymmetricMatrix.FULL);
+        ArrayList<Integer> path = new ArrayList<>();
+        path.add(1); // start at migros
+
+        if(numberOfHouses > 1) {
+            int[] order = findOrder(distances);
+            for(int house : order)
+                path.add(house + 1); // we store the indices, so we need to add 1 to get the house numbers
+        }
+        path.add(1); // return to migros
+
+        // the table stores floats to save memory, so the distance is calculated again with the exact distances
+        double distance = 0;
+        for(int i = 1; i < path.size(); i++)
+            distance += distances.get(path.get(i - 1) - 1, path.get(i) - 1);
+        return new SolverResult("Held-Karp Dynamic Programming Method", distance, path);
+    }
+
+    /**
+     * Calculate the memory of the table for a number of houses
+     * @param numberOfHouses the number of houses, migros included
+     * @return the size of the table in bytes
+     */
+    public static long tableBytes(int numberOfHouses) {
+        int m = Math.max(0, numberOfHouses - 1); // number of houses other than migros
+        return (long) Float.BYTES * m << m;
+    }
+
+    /**
+     * Find the order of the houses other than migros in the shortest path.
+     * The houses 1 to n-1 are stored as the bits 0 to n-2 of a set, and table[set * m + j] is the length of the shortest path
+     * that starts at migros, visits all houses in the set and ends at the house of bit j.
+     * @param distances the distances between the houses
+     * @return the indices of the houses in the order they are visited after migros
+     */
+    private static int[] findOrder(DistanceOracle distances) {
+        int m = distances.size() - 1; // number of houses other than migros
+        int fullSet = (1 << m) - 1;
+
+        float[] d = new float[(m + 1) * (m + 1)]; // flat copy of the distances, so the inner loop reads an array
+        for(int i = 0; i <= m; i++)
+            for(int j = 0; j <= m; j++)
+                d[i * (m + 1) + j] = (float) distances.get(i, j);
+
+        float[] table = new float[(fullSet + 1) * m];
+
+        // a path that visits only one house goes there directly from migros
+        for(int j = 0; j < m; j++)
+            table[(1 << j) * m + j] = d[j + 1];
+
+        // the sets with the same number of houses only need the smaller sets, so each layer is calculated in parallel
+        for(int size = 2; size <= m; size++) {
+            final int setSize = size;
+            IntStream.rangeClosed(1, fullSet).parallel()
+                    .filter(set -> Integer.bitCount(set) == setSize)
+                    .forEach(set -> {
+                        for(int j = 0; j < m; j++)
+                            if((set & (1 << j)) != 0)
+                                table[set * m + j] = shortestEnding(table, d, m, set, j);
+                    });
+        }
+
+        // find the last house before returning to migros
+        int last = 0;
+        float best = Float.MAX_VALUE;
+        for(int j = 0; j < m; j++) {
+            float length = table[fullSet * m + j] + d[(j + 1) * (m + 1)];
+            if(length < best) {
+                best = length;
+                last = j;
+            }
+        }
+
+        // go back through the table to find the order, the previous house is the one that gave the stored length
+        int[] order = new int[m];
+        int set = fullSet;
+        for(int position = m - 1; position >= 0; position--) {
+            order[position] = last + 1;
+            int previousSet = set ^ (1 << last);
+            if(previousSet != 0) {
+                float target = table[set * m + last];
+                for(int k = 0; k < m; k++)
+                    if((previousSet & (1 << k)) != 0 && table[previousSet * m + k] + d[(k + 1) * (m + 1) + last + 1] == target) {
+                        last = k;
+                        break;
+                    }
+            }
+            set = previousSet;
+        }
+        return order;
+    }
+
+    /**
+     * Find the length of the shortest path that visits the houses in the set and ends at house j
+     * @param table the table of the smaller sets
+     * @param d the distances between the houses
+     * @param m the number of houses other than migros
+     * @param set the set of houses
+     * @param j the bit of the last house
+     * @return the length of the shortest path
+     */
+    private static float shortestEnding(float[] table, float[] d, int m, int set, int j) {
+        int previousSet = set ^ (1 << j); // the houses visited before j
+        float best = Float.MAX_VALUE;
+        for(int k = 0; k < m; k++)
+            if((previousSet & (1 << k)) != 0) {
+                float length = table[previousSet * m + k] + d[(k + 1) * (m + 1) + j + 1];
+                if(length < best)
+                    best = length;
+            }
+        return best;
+    }
+}
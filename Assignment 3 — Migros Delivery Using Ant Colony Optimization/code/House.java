@@ -1,7 +1,6 @@
 import java.util.ArrayList;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
 
 
 /**
@@ -46,27 +45,17 @@ public class House {
      * @return the distance between the two houses
      */
     public static double calculateDistance(House house, House other) {
-        return Math.sqrt(Math.pow(house.x - other.x, 2) + Math.pow(house.y - other.y, 2));
+        double dx = house.x - other.x, dy = house.y - other.y;
+        return Math.sqrt(dx * dx + dy * dy); // multiplying is much faster than Math.pow
     }
 
     /**
-     * Read the houses from the input file
+     * Read the houses from the input file, which can be a text file with one "x,y" line for every house or a binary house file
      * @param file the input file
      * @return the list of houses
-     * @throws FileNotFoundException if the file is not found
+     * @throws IOException if the file cannot be read
      */
-    public static ArrayList<House> readHouses(File file) throws FileNotFoundException {
-        ArrayList<House> houses = new ArrayList<>(); // create an array list to store the houses
-
-        Scanner sc = new Scanner(file); // create a scanner object to read the file
-        while(sc.hasNextLine()) { // read the houses from the input file
-            String[] line = sc.nextLine().split(","); // split the line by comma
-            double x = Double.parseDouble(line[0]); // the x coordinate of the house
-            double y = Double.parseDouble(line[1]); // the y coordinate of the house
-            houses.add(new House(x, y)); // create a House object and add it to the array list
-        }
-
-        sc.close(); // close the scanner
-        return houses;
+    public static ArrayList<House> readHouses(File file) throws IOException {
+        return HouseFile.read(file.toPath()).toHouses(); // the file is read into arrays first, then the house objects are created
     }
 }
@@ -0,0 +1,326 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The HouseFile class reads and writes the house files.
+ * A text file has one "x,y" line for every house. It is mapped into memory and the numbers are read from the bytes directly
+ * into the coordinate arrays, without creating a string for every line.
+ * A binary file starts with the bytes "HOUS", a version number and the number of houses, followed by all x coordinates
+ * and then all y coordinates as little endian doubles, so it can be copied into the arrays at once.
+ * To convert a text file into a binary file: java HouseFile input.txt input.bin
+ */
+public class HouseFile {
+    private static final int MAGIC = 0x53554F48; // the bytes "HOUS" at the start of a binary file, read as a little endian int
+    private static final int VERSION = 1; // the version of the binary format
+    private static final int HEADER_SIZE = 12; // magic, version and number of houses
+    private static final long CHUNK_SIZE = 1 << 30; // the biggest part of a text file that is mapped at once
+    private static final long MAX_EXACT_MANTISSA = 1L << 53; // bigger integers cannot be stored exactly in a double
+
+    // the powers of ten that can be stored exactly in a double
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Convert a text house file into a binary house file
+     * @param args the text file and the binary file
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length != 2) {
+            System.out.println("Usage: java HouseFile <text file> <binary file>");
+            return;
+        }
+        HouseSet houses = readText(Path.of(args[0]));
+        writeBinary(houses, Path.of(args[1]));
+        System.out.println("Converted " + houses.size() + " houses from " + args[0] + " to " + args[1]);
+    }
+
+    /**
+     * Read a house file, which can be a text file or a binary file
+     * @param path the path of the file
+     * @return the houses in the file
+     * @throws IOException if the file cannot be read or is not a valid house file
+     */
+    public static HouseSet read(Path path) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return isBinary(channel) ? readBinary(channel) : readText(channel);
+        }
+    }
+
+    /**
+     * Read a text house file
+     * @param path the path of the file
+     * @return the houses in the file
+     * @throws IOException if the file cannot be read
+     */
+    public static HouseSet readText(Path path) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readText(channel);
+        }
+    }
+
+    /**
+     * Read a binary house file
+     * @param path the path of the file
+     * @return the houses in the file
+     * @throws IOException if the file cannot be read or is not a valid binary house file
+     */
+    public static HouseSet readBinary(Path path) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readBinary(channel);
+        }
+    }
+
+    /**
+     * Write the houses into a binary house file
+     * @param houses the houses
+     * @param path the path of the file, it is replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeBinary(HouseSet houses, Path path) throws IOException {
+        long size = HEADER_SIZE + 16L * houses.size();
+        if(size > Integer.MAX_VALUE)
+            throw new IOException(houses.size() + " houses are too many for a binary house file");
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(houses.size());
+            DoubleBuffer coordinates = buffer.asDoubleBuffer(); // starts after the header
+            coordinates.put(houses.getXs());
+            coordinates.put(houses.getYs());
+            buffer.force(); // write the mapped bytes to the file
+        }
+    }
+
+    /**
+     * Check if a file starts like a binary house file
+     * @param channel the file
+     * @return true if the file is a binary house file
+     * @throws IOException if the file cannot be read
+     */
+    private static boolean isBinary(FileChannel channel) throws IOException {
+        if(channel.size() < HEADER_SIZE)
+            return false;
+        ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        while(magic.hasRemaining() && channel.read(magic, magic.position()) > 0); // read the first four bytes
+        return magic.getInt(0) == MAGIC;
+    }
+
+    /**
+     * Read a binary house file
+     * @param channel the file
+     * @return the houses in the file
+     * @throws IOException if the file is not a valid binary house file
+     */
+    private static HouseSet readBinary(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if(size < HEADER_SIZE)
+            throw new IOException("Not a binary house file");
+        if(size > Integer.MAX_VALUE)
+            throw new IOException("The binary house file of " + size + " bytes is too big, at most " + Integer.MAX_VALUE + " bytes can be read");
+
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if(buffer.getInt() != MAGIC)
+            throw new IOException("Not a binary house file");
+        int version = buffer.getInt();
+        if(version != VERSION)
+            throw new IOException("Unknown binary house file version " + version);
+        int numberOfHouses = buffer.getInt();
+        if(numberOfHouses < 0 || size != HEADER_SIZE + 16L * numberOfHouses)
+            throw new IOException("The binary house file should have " + numberOfHouses + " houses but its size is " + size + " bytes");
+
+        double[] xs = new double[numberOfHouses];
+        double[] ys = new double[numberOfHouses];
+        DoubleBuffer coordinates = buffer.asDoubleBuffer(); // starts after the header
+        coordinates.get(xs);
+        coordinates.get(ys);
+        return new HouseSet(xs, ys);
+    }
+
+    /**
+     * Read a text house file. Files bigger than CHUNK_SIZE are mapped part by part, and every part ends at the end of a line.
+     * @param channel the file
+     * @return the houses in the file
+     * @throws IOException if the file cannot be read
+     */
+    private static HouseSet readText(FileChannel channel) throws IOException {
+        long size = channel.size();
+        TextParser parser = new TextParser(size);
+
+        long position = 0; // the start of the part that is not read yet
+        while(position < size) {
+            long length = Math.min(CHUNK_SIZE, size - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            int end = (int) length;
+            if(position + length < size) { // the last line of the part may continue in the next part
+                while(end > 0 && buffer.get(end - 1) != '\n')
+                    end--;
+                if(end == 0)
+                    throw new IOException("A line of the house file is longer than " + CHUNK_SIZE + " bytes");
+            }
+            parser.parse(buffer, end);
+            position += end;
+        }
+        return parser.toHouseSet();
+    }
+
+    /**
+     * The TextParser class keeps the coordinates read so far while the parts of a text file are read
+     */
+    private static class TextParser {
+        private double[] xs; // the x coordinates read so far
+        private double[] ys; // the y coordinates read so far
+        private int count = 0; // the number of houses read so far
+        private long lineNumber = 0; // the number of the last line read, used in the error messages
+
+        /**
+         * Create a parser, the arrays start with a guess of the number of houses and grow if needed
+         * @param fileSize the size of the file in bytes
+         */
+        TextParser(long fileSize) {
+            int capacity = (int) Math.min(Math.max(fileSize / 16, 16), Integer.MAX_VALUE - 8); // a line like "0.1344,0.8474" has 14 bytes
+            xs = new double[capacity];
+            ys = new double[capacity];
+        }
+
+        /**
+         * Read the lines of a part of the file
+         * @param buffer the mapped part of the file
+         * @param end the end of the last complete line in the part
+         */
+        void parse(ByteBuffer buffer, int end) {
+            int start = 0;
+            while(start < end) {
+                int lineEnd = start;
+                while(lineEnd < end && buffer.get(lineEnd) != '\n')
+                    lineEnd++;
+                lineNumber++;
+                parseLine(buffer, start, lineEnd);
+                start = lineEnd + 1;
+            }
+        }
+
+        /**
+         * Read the coordinates of a line and add the house to the arrays, empty lines are skipped
+         * @param buffer the mapped part of the file
+         * @param start the first byte of the line
+         * @param end the byte after the last byte of the line
+         */
+        private void parseLine(ByteBuffer buffer, int start, int end) {
+            int comma = start;
+            while(comma < end && buffer.get(comma) != ',')
+                comma++;
+            if(comma == end) {
+                if(skipSpaces(buffer, start, end) == end)
+                    return; // empty line
+                throw new NumberFormatException("Line " + lineNumber + " of the house file has no comma");
+            }
+            int yEnd = comma + 1;
+            while(yEnd < end && buffer.get(yEnd) != ',')
+                yEnd++; // other columns are ignored
+
+            if(count == xs.length) {
+                int capacity = (int) Math.min(2L * count, Integer.MAX_VALUE - 8);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+            }
+            xs[count] = parseNumber(buffer, start, comma);
+            ys[count] = parseNumber(buffer, comma + 1, yEnd);
+            count++;
+        }
+
+        /**
+         * Read a number like "-12.345" from the bytes. The digits are collected into a long and divided by a power of ten once,
+         * which gives exactly the same double as Double.parseDouble as long as both numbers can be stored exactly.
+         * Other numbers, like the ones with an exponent or too many digits, are read by Double.parseDouble.
+         * @param buffer the mapped part of the file
+         * @param start the first byte of the number
+         * @param end the byte after the last byte of the number
+         * @return the number
+         */
+        private double parseNumber(ByteBuffer buffer, int start, int end) {
+            start = skipSpaces(buffer, start, end);
+            while(end > start && isSpace(buffer.get(end - 1)))
+                end--;
+
+            int i = start;
+            boolean negative = false;
+            if(i < end && (buffer.get(i) == '-' || buffer.get(i) == '+'))
+                negative = buffer.get(i++) == '-';
+
+            long mantissa = 0; // all digits without the point
+            int digits = 0; // number of digits
+            int fractionDigits = -1; // number of digits after the point, -1 before the point
+            for(; i < end; i++) {
+                byte c = buffer.get(i);
+                if(c >= '0' && c <= '9') {
+                    if(++digits > 18)
+                        break; // the long may overflow
+                    mantissa = mantissa * 10 + (c - '0');
+                    if(fractionDigits >= 0)
+                        fractionDigits++;
+                }
+                else if(c == '.' && fractionDigits < 0)
+                    fractionDigits = 0;
+                else
+                    break; // an exponent or an invalid character
+            }
+
+            if(i < end || digits == 0 || mantissa > MAX_EXACT_MANTISSA || fractionDigits >= POWERS_OF_TEN.length) {
+                byte[] bytes = new byte[end - start];
+                buffer.get(start, bytes);
+                try {
+                    return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+                } catch(NumberFormatException e) {
+                    throw new NumberFormatException("Line " + lineNumber + " of the house file: " + e.getMessage());
+                }
+            }
+
+            double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+            return negative ? -value : value;
+        }
+
+        /**
+         * Find the first byte that is not a space
+         * @param buffer the mapped part of the file
+         * @param start the first byte to check
+         * @param end the byte after the last byte to check
+         * @return the index of the first byte that is not a space, or end if all of them are spaces
+         */
+        private static int skipSpaces(ByteBuffer buffer, int start, int end) {
+            while(start < end && isSpace(buffer.get(start)))
+                start++;
+            return start;
+        }
+
+        /**
+         * Check if a byte is a space, a tab or the carriage return of a windows line ending
+         * @param c the byte
+         * @return true if the byte is a space
+         */
+        private static boolean isSpace(byte c) {
+            return c == ' ' || c == '\t' || c == '\r';
+        }
+
+        /**
+         * Create the house set from the coordinates read
+         * @return the house set
+         */
+        HouseSet toHouseSet() {
+            return new HouseSet(Arrays.copyOf(xs, count), Arrays.copyOf(ys, count));
+        }
+    }
+}
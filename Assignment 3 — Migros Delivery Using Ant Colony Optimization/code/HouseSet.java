@@ -0,0 +1,148 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * The HouseSet class stores the coordinates of many houses in two arrays instead of one object for every house.
+ * The first house is migros, like in the list of houses.
+ * The distances are calculated by a DistanceKernel, which can calculate a whole row of distances with vector instructions.
+ */
+public class HouseSet {
+    private static final DistanceKernel KERNEL = loadKernel(); // the kernel that calculates the distances
+
+    private final double[] xs; // the x coordinates of the houses
+    private final double[] ys; // the y coordinates of the houses
+
+    /**
+     * Create a house set from the coordinate arrays, the arrays are not copied
+     * @param xs the x coordinates of the houses
+     * @param ys the y coordinates of the houses
+     */
+    public HouseSet(double[] xs, double[] ys) {
+        if(xs.length != ys.length)
+            throw new IllegalArgumentException("There are " + xs.length + " x coordinates but " + ys.length + " y coordinates");
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    /**
+     * Create a house set from a list of houses
+     * @param houses the list of houses
+     * @return the house set
+     */
+    public static HouseSet of(ArrayList<House> houses) {
+        double[] xs = new double[houses.size()];
+        double[] ys = new double[houses.size()];
+        for(int i = 0; i < houses.size(); i++) {
+            xs[i] = houses.get(i).getX();
+            ys[i] = houses.get(i).getY();
+        }
+        return new HouseSet(xs, ys);
+    }
+
+    /**
+     * Read the houses from the input file into arrays, without creating an object for every house
+     * @param file the input file, a text file with one "x,y" line for every house or a binary house file
+     * @return the house set
+     * @throws IOException if the file cannot be read
+     */
+    public static HouseSet read(File file) throws IOException {
+        return HouseFile.read(file.toPath());
+    }
+
+    /**
+     * Create the list of houses that the screen draws
+     * @return the list of houses
+     */
+    public ArrayList<House> toHouses() {
+        ArrayList<House> houses = new ArrayList<>(xs.length);
+        for(int i = 0; i < xs.length; i++)
+            houses.add(new House(xs[i], ys[i]));
+        return houses;
+    }
+
+    /**
+     * Load the vector kernel if it is compiled and the vector module is added, otherwise use the scalar kernel
+     * @return the kernel
+     */
+    private static DistanceKernel loadKernel() {
+        try {
+            return (DistanceKernel) Class.forName("VectorDistanceKernel").getDeclaredConstructor().newInstance();
+        } catch(ReflectiveOperationException | LinkageError e) {
+            return new ScalarDistanceKernel(); // the vector folder is not compiled or --add-modules jdk.incubator.vector is missing
+        }
+    }
+
+    /**
+     * Get the number of houses
+     * @return the number of houses
+     */
+    public int size() {
+        return xs.length;
+    }
+
+    /**
+     * Get the x coordinate of a house
+     * @param i the index of the house
+     * @return the x coordinate of the house
+     */
+    public double getX(int i) {
+        return xs[i];
+    }
+
+    /**
+     * Get the y coordinate of a house
+     * @param i the index of the house
+     * @return the y coordinate of the house
+     */
+    public double getY(int i) {
+        return ys[i];
+    }
+
+    /**
+     * Get the x coordinates of all houses, the array is not copied
+     * @return the x coordinates
+     */
+    double[] getXs() {
+        return xs;
+    }
+
+    /**
+     * Get the y coordinates of all houses, the array is not copied
+     * @return the y coordinates
+     */
+    double[] getYs() {
+        return ys;
+    }
+
+    /**
+     * Calculate the distance between two houses
+     * @param i the index of the first house
+     * @param j the index of the second house
+     * @return the distance between the two houses
+     */
+    public double distance(int i, int j) {
+        double dx = xs[i] - xs[j], dy = ys[i] - ys[j];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Calculate the distances from one house to a range of houses at once
+     * @param i the index of the house
+     * @param row the array that gets the distances, row[j] is the distance from house i to house j
+     * @param start the index of the first house of the range
+     * @param end the index after the last house of the range
+     */
+    public void fillDistanceRow(int i, double[] row, int start, int end) {
+        KERNEL.fillRow(xs, ys, i, row, start, end);
+    }
+
+    /**
+     * Calculate the length of a closed tour
+     * @param tour the order of the houses
+     * @return the length of the tour including the edge from the last house back to the first house
+     */
+    public double tourLength(int[] tour) {
+        return KERNEL.tourLength(xs, ys, tour);
+    }
+}
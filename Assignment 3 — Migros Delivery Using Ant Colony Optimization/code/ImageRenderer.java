@@ -0,0 +1,129 @@
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.imageio.ImageIO;
+
+/**
+ * The ImageRenderer class draws the same pictures as the Screen class into an image instead of a window,
+ * so the paths and the pheromone intensities can be saved as png files on computers without a screen.
+ * The coordinates of the houses are between 0 and 1 like on the screen, and the pen radii are fractions of the image size like in StdDraw.
+ */
+public class ImageRenderer {
+    private static final Color PRINCETON_ORANGE = new Color(245, 128, 37); // the color of migros, the same as in StdDraw
+    private static final double HOUSE_RADIUS = 0.02; // radius of the circle of a house
+    private static final double PATH_PEN_RADIUS = 0.002; // pen radius of the lines of the path
+    private static final double FONT_SIZE = 16.0 / 800; // the size of the house numbers, 16 points on an 800 pixel screen
+
+    /**
+     * Draw the shortest path and the houses into an image
+     * @param shortestPath the order of the houses to visit, starting from 1
+     * @param houses the list of houses
+     * @param size the width and height of the image in pixels
+     * @return the image
+     */
+    public static BufferedImage drawPath(List<Integer> shortestPath, ArrayList<House> houses, int size) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = createGraphics(image);
+        graphics.setColor(Color.BLACK);
+        graphics.setStroke(new BasicStroke((float) (2 * PATH_PEN_RADIUS * size), BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        for(int i = 1; i < shortestPath.size(); i++)
+            drawLine(graphics, houses.get(shortestPath.get(i - 1) - 1), houses.get(shortestPath.get(i) - 1), size);
+        drawHouses(graphics, houses, 1, size);
+        graphics.dispose();
+        return image;
+    }
+
+    /**
+     * Draw the pheromone intensities of the given edges and the houses into an image
+     * @param edges the edges with their pheromone intensities
+     * @param houses the list of houses
+     * @param size the width and height of the image in pixels
+     * @return the image
+     */
+    public static BufferedImage drawPheromones(PheromoneEdges edges, ArrayList<House> houses, int size) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = createGraphics(image);
+        graphics.setColor(Color.BLACK);
+        float width = -1; // the current line width
+        for(int k = 0; k < edges.size(); k++) {
+            float edgeWidth = (float) (2 * edges.getPheromone(k) * 2.0 * size); // the pen radius is the pheromone level times 2, like on the screen
+            if(edgeWidth != width) {
+                graphics.setStroke(new BasicStroke(edgeWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+                width = edgeWidth;
+            }
+            drawLine(graphics, houses.get(edges.getFirst(k)), houses.get(edges.getSecond(k)), size);
+        }
+        drawHouses(graphics, houses, 2, size);
+        graphics.dispose();
+        return image;
+    }
+
+    /**
+     * Save an image as a png file
+     * @param image the image
+     * @param file the png file
+     * @throws IOException if the file cannot be written
+     */
+    public static void writePng(BufferedImage image, File file) throws IOException {
+        if(!ImageIO.write(image, "png", file))
+            throw new IOException("No png writer is available");
+    }
+
+    /**
+     * Prepare an image for drawing with a white background and smooth lines
+     * @param image the image
+     * @return the graphics of the image
+     */
+    private static Graphics2D createGraphics(BufferedImage image) {
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        return graphics;
+    }
+
+    /**
+     * Draw the houses with their numbers like Screen.drawHouses
+     * @param graphics the graphics of the image
+     * @param houses the list of houses
+     * @param chosenGraph 1 for the shortest path, which draws migros in orange, 2 for the pheromone intensities
+     * @param size the width and height of the image in pixels
+     */
+    private static void drawHouses(Graphics2D graphics, ArrayList<House> houses, int chosenGraph, int size) {
+        graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, Math.max(1, (int) Math.round(FONT_SIZE * size))));
+        FontMetrics metrics = graphics.getFontMetrics();
+        double radius = HOUSE_RADIUS * size;
+
+        for(int i = 0; i < houses.size(); i++) {
+            double x = houses.get(i).getX() * size, y = (1 - houses.get(i).getY()) * size; // the y axis of an image goes down
+            graphics.setColor(i == 0 && chosenGraph == 1 ? PRINCETON_ORANGE : Color.LIGHT_GRAY);
+            graphics.fill(new Ellipse2D.Double(x - radius, y - radius, 2 * radius, 2 * radius));
+
+            String number = Integer.toString(i + 1); // the number of the house
+            graphics.setColor(Color.BLACK);
+            graphics.drawString(number, (float) (x - metrics.stringWidth(number) / 2.0), (float) (y + (metrics.getAscent() - metrics.getDescent()) / 2.0));
+        }
+    }
+
+    /**
+     * Draw a line between two houses
+     * @param graphics the graphics of the image
+     * @param house first house
+     * @param other second house
+     * @param size the width and height of the image in pixels
+     */
+    private static void drawLine(Graphics2D graphics, House house, House other, int size) {
+        graphics.draw(new Line2D.Double(house.getX() * size, (1 - house.getY()) * size, other.getX() * size, (1 - other.getY()) * size));
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * The ImprovementListener interface is used to learn about every shorter path while a colony is still solving
+ */
+public interface ImprovementListener {
+    /**
+     * Called on the solving thread every time the colony finds a shorter path
+     * @param iteration the number of the iteration in which the path was found, starting from 0
+     * @param best the shortest path found so far
+     */
+    void improved(int iteration, SolverResult best);
+}
@@ -0,0 +1,177 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The IslandSolver class runs several independent colonies, called islands, at the same time, every island on its own thread.
+ * Every island has its own config and its own pheromones, so the islands search different parts of the problem.
+ * The islands are placed on a ring, and every few iterations an island sends its shortest tour to the next island.
+ * An island that gets a tour gives pheromone to its edges, and takes it as its shortest tour if it is shorter.
+ * The tours are sent through one slot per island that is only read and replaced atomically, so an island never waits for another one.
+ */
+public class IslandSolver {
+    public static final String METHOD = "Island Ant Colony Optimization Method"; // name of the method in the results
+    private static final double MIN_BETA_FACTOR = 0.75; // the first island of createConfigs uses this much of the beta of the base config
+    private static final double MAX_BETA_FACTOR = 1.25; // the last island of createConfigs uses this much of the beta of the base config
+
+    private final AntColony[] colonies; // the colony of every island
+    private final int migrationInterval; // an island sends its shortest tour after every this many iterations
+    private final AtomicReferenceArray<Migrant> outboxes; // the last tour sent by every island, read by the next island on the ring
+    private final AtomicBoolean finished = new AtomicBoolean(); // true when an island has reached the target distance
+    private final AtomicInteger acceptedMigrants = new AtomicInteger(); // number of tours that became the shortest tour of another island
+    private volatile double targetDistance = 0; // the islands stop when a tour is not longer than this, 0 for no target
+
+    /**
+     * Create the islands, the colony of every island is created with its own config
+     * @param houses the list of houses, the first one is migros
+     * @param configs the config of every island, the ants of an island should travel one after another since the islands run in parallel
+     * @param migrationInterval the number of iterations between two tours sent by an island
+     */
+    public IslandSolver(ArrayList<House> houses, AntColonyConfig[] configs, int migrationInterval) {
+        this(HouseSet.of(houses), configs, migrationInterval);
+    }
+
+    /**
+     * Create the islands without creating an object for every house, the colony of every island is created with its own config
+     * @param houses the coordinates of the houses, the first one is migros
+     * @param configs the config of every island, the ants of an island should travel one after another since the islands run in parallel
+     * @param migrationInterval the number of iterations between two tours sent by an island
+     */
+    public IslandSolver(HouseSet houses, AntColonyConfig[] configs, int migrationInterval) {
+        if(configs.length == 0)
+            throw new IllegalArgumentException("There must be at least one island");
+        if(migrationInterval < 1)
+            throw new IllegalArgumentException("The migration interval must be at least 1, but it is " + migrationInterval);
+        this.migrationInterval = migrationInterval;
+        this.colonies = new AntColony[configs.length];
+        this.outboxes = new AtomicReferenceArray<>(configs.length);
+        for(int i = 0; i < configs.length; i++) {
+            colonies[i] = new AntColony(configs[i], houses);
+            int island = i;
+            colonies[i].addIterationListener((colony, stats) -> migrate(island, colony, stats));
+        }
+    }
+
+    /**
+     * Create the configs of the islands from one config. Every island gets its own seed, and the beta values are spread
+     * from 0.75 to 1.25 times the beta of the base config, so some islands follow the distances more than the others.
+     * The ants of every island travel one after another.
+     * @param base the config that the islands are made from
+     * @param islandCount the number of islands
+     * @return the config of every island
+     */
+    public static AntColonyConfig[] createConfigs(AntColonyConfig base, int islandCount) {
+        AntColonyConfig[] configs = new AntColonyConfig[islandCount];
+        for(int i = 0; i < islandCount; i++) {
+            double factor = islandCount == 1 ? 1 : MIN_BETA_FACTOR + (MAX_BETA_FACTOR - MIN_BETA_FACTOR) * i / (islandCount - 1);
+            configs[i] = base.withParallel(false).withSeed(base.getSeed() + i).withWeights(base.getAlpha(), base.getBeta() * factor);
+        }
+        return configs;
+    }
+
+    /**
+     * Solve the migros delivery problem with all islands until every island has finished its iterations
+     * @return the shortest path found by any island
+     */
+    public SolverResult solve() {
+        return solve(0);
+    }
+
+    /**
+     * Solve the migros delivery problem with all islands. When an island finds a tour that is not longer than the target,
+     * all islands stop after their current iteration.
+     * @param targetDistance the distance that is good enough, 0 for no target
+     * @return the shortest path found by any island
+     */
+    public SolverResult solve(double targetDistance) {
+        this.targetDistance = targetDistance;
+        finished.set(false);
+
+        List<Callable<SolverResult>> tasks = new ArrayList<>(colonies.length);
+        for(AntColony colony : colonies)
+            tasks.add(colony::solve);
+
+        SolverResult best = null;
+        try(ExecutorService executor = Executors.newFixedThreadPool(colonies.length)) { // one thread per island, an island runs until it finishes
+            for(Future<SolverResult> future : executor.invokeAll(tasks)) {
+                SolverResult result = future.get();
+                if(result != null && (best == null || result.getDistance() < best.getDistance()))
+                    best = result;
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("An island failed", e.getCause());
+        }
+        return best == null ? null : new SolverResult(METHOD, best.getDistance(), best.getPath());
+    }
+
+    /**
+     * Send and receive tours after an iteration of an island. It runs on the thread of the island,
+     * so the island can change its own pheromones without locks.
+     * @param island the index of the island
+     * @param colony the colony of the island
+     * @param stats the statistics of the iteration that finished
+     */
+    private void migrate(int island, AntColony colony, IterationStats stats) {
+        if(targetDistance > 0 && colony.getMinDistance() <= targetDistance)
+            finished.set(true);
+        if(finished.get()) {
+            colony.stop();
+            return;
+        }
+        if((stats.getIteration() + 1) % migrationInterval != 0 || colonies.length == 1)
+            return;
+
+        // take the tour of the previous island if it is new and shorter
+        Migrant migrant = outboxes.get((island + colonies.length - 1) % colonies.length);
+        if(migrant != null && migrant.length < colony.getMinDistance() && colony.acceptTour(migrant.tour, migrant.length))
+            acceptedMigrants.incrementAndGet();
+
+        // send the shortest tour to the next island, the old tour is replaced if it was not taken yet
+        Migrant sent = outboxes.get(island);
+        if(colony.getShortestTour() != null && (sent == null || colony.getMinDistance() < sent.length))
+            outboxes.set(island, new Migrant(colony.getShortestTour().clone(), colony.getMinDistance()));
+    }
+
+    /**
+     * Get the colonies of the islands
+     * @return the colonies
+     */
+    public AntColony[] getColonies() {
+        return colonies;
+    }
+
+    /**
+     * Get the number of tours that became the shortest tour of another island
+     * @return the number of accepted tours
+     */
+    public int getAcceptedMigrants() {
+        return acceptedMigrants.get();
+    }
+
+    /**
+     * A tour sent from one island to another. It cannot be changed after it is created, so it can be read by another thread.
+     */
+    private static class Migrant {
+        private final int[] tour; // the indices of the houses in the order of the tour, the first house is repeated at the end
+        private final double length; // the length of the tour
+
+        /**
+         * Create a migrant tour, the array is not copied
+         * @param tour the tour
+         * @param length the length of the tour
+         */
+        private Migrant(int[] tour, double length) {
+            this.tour = tour;
+            this.length = length;
+        }
+    }
+}
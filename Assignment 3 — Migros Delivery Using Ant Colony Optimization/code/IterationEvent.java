@@ -0,0 +1,44 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The IterationEvent class is the Java Flight Recorder event of one iteration of a colony.
+ * The events are only recorded when a recording is running, for example with -XX:StartFlightRecording=filename=aco.jfr,
+ * otherwise creating them costs almost nothing.
+ */
+@Name("aco.Iteration")
+@Label("ACO Iteration")
+@Category("Ant Colony Optimization")
+@Description("One iteration of an ant colony")
+@StackTrace(false)
+class IterationEvent extends Event {
+    @Label("Iteration")
+    int iteration;
+
+    @Label("Best Distance")
+    @Description("Distance of the shortest path found so far")
+    double bestDistance;
+
+    @Label("Iteration Best Distance")
+    double iterationBestDistance;
+
+    @Label("Mean Distance")
+    double meanDistance;
+
+    @Label("Construction Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long constructionNanos;
+
+    @Label("Deposit Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long depositNanos;
+
+    @Label("Evaporation Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long evaporationNanos;
+}
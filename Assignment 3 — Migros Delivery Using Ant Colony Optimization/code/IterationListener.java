@@ -0,0 +1,12 @@
+/**
+ * The IterationListener interface is used to watch a colony after every iteration while it is still solving
+ */
+public interface IterationListener {
+    /**
+     * Called on the solving thread after every iteration, when the pheromones of the iteration are updated.
+     * The solve waits for the listener, so a listener that takes long should only do its work from time to time.
+     * @param colony the colony
+     * @param stats the statistics of the iteration that finished
+     */
+    void iterationFinished(AntColony colony, IterationStats stats);
+}
@@ -0,0 +1,102 @@
+/**
+ * The IterationStats class stores what happened in one iteration of a colony: the path lengths of the ants and where the time went.
+ * The time of an iteration is split into the construction of the paths (including the local search), the pheromones left by the ants,
+ * and the evaporation of the pheromones. An object of this class cannot be changed.
+ */
+public class IterationStats {
+    private final int iteration; // the number of the iteration, starting from 0
+    private final double bestDistance; // the distance of the shortest path found so far
+    private final double iterationBestDistance; // the shortest path length of the ants of this iteration
+    private final double meanDistance; // the average path length of the ants of this iteration
+    private final long wallNanos; // nanoseconds the iteration took
+    private final long constructionNanos; // nanoseconds the ants spent building and improving their paths
+    private final long depositNanos; // nanoseconds spent leaving pheromones
+    private final long evaporationNanos; // nanoseconds spent degrading the pheromones
+
+    /**
+     * Create the statistics of an iteration
+     * @param iteration the number of the iteration, starting from 0
+     * @param bestDistance the distance of the shortest path found so far
+     * @param iterationBestDistance the shortest path length of the ants of this iteration
+     * @param meanDistance the average path length of the ants of this iteration
+     * @param wallNanos nanoseconds the iteration took
+     * @param constructionNanos nanoseconds the ants spent building and improving their paths
+     * @param depositNanos nanoseconds spent leaving pheromones
+     * @param evaporationNanos nanoseconds spent degrading the pheromones
+     */
+    public IterationStats(int iteration, double bestDistance, double iterationBestDistance, double meanDistance,
+                          long wallNanos, long constructionNanos, long depositNanos, long evaporationNanos) {
+        this.iteration = iteration;
+        this.bestDistance = bestDistance;
+        this.iterationBestDistance = iterationBestDistance;
+        this.meanDistance = meanDistance;
+        this.wallNanos = wallNanos;
+        this.constructionNanos = constructionNanos;
+        this.depositNanos = depositNanos;
+        this.evaporationNanos = evaporationNanos;
+    }
+
+    /**
+     * Get the number of the iteration
+     * @return the iteration, starting from 0
+     */
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * Get the distance of the shortest path found so far
+     * @return the best distance
+     */
+    public double getBestDistance() {
+        return bestDistance;
+    }
+
+    /**
+     * Get the shortest path length of the ants of this iteration
+     * @return the best distance of the iteration
+     */
+    public double getIterationBestDistance() {
+        return iterationBestDistance;
+    }
+
+    /**
+     * Get the average path length of the ants of this iteration
+     * @return the mean distance
+     */
+    public double getMeanDistance() {
+        return meanDistance;
+    }
+
+    /**
+     * Get the time the iteration took
+     * @return the wall time in nanoseconds
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Get the time the ants spent building and improving their paths
+     * @return the construction time in nanoseconds
+     */
+    public long getConstructionNanos() {
+        return constructionNanos;
+    }
+
+    /**
+     * Get the time spent leaving pheromones
+     * @return the deposit time in nanoseconds
+     */
+    public long getDepositNanos() {
+        return depositNanos;
+    }
+
+    /**
+     * Get the time spent degrading the pheromones
+     * @return the evaporation time in nanoseconds
+     */
+    public long getEvaporationNanos() {
+        return evaporationNanos;
+    }
+}
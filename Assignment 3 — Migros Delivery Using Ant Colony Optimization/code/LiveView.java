@@ -0,0 +1,126 @@
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The LiveView class shows the shortest path and the strongest pheromones on the screen while a colony is still solving.
+ * After an iteration, the colony's thread only makes a small copy of the current state if enough time has passed since the last one,
+ * and a separate thread draws the copies. The copy has the pheromones of the edges from every house to its nearest houses only,
+ * so it is made in O(n * k) time, and the drawing thread picks the strongest of them.
+ * The strong edges of a colony almost always join near houses, so the same edges are drawn as with the whole matrix in most cases. If a new copy is made before the old one is drawn, the old one is skipped,
+ * so the solve never waits for the screen.
+ */
+public final class LiveView implements IterationListener, AutoCloseable {
+    private static final int EDGES_PER_HOUSE = 5; // the edges drawn per house if no limit is given, a solved colony has about two strong edges per house
+    private static final int NEIGHBOURS = 10; // the number of nearest houses of every house whose edges are copied
+    private final ArrayList<House> houses; // the list of houses
+    private final CandidateLists neighbours; // the nearest houses of every house
+    private final long intervalNanos; // the minimum time between two copies
+    private final double minFraction; // an edge is drawn only if its pheromone is at least this fraction of the highest pheromone
+    private final int maxEdges; // the maximum number of edges that are drawn
+    private final AtomicReference<Frame> latestFrame = new AtomicReference<>(); // the newest copy that is not drawn yet, or null
+    private final Thread renderThread; // the thread that draws the copies
+    private volatile boolean running = true; // false after close is called
+    private long nextFrameTime = 0; // the time after which the next copy is made, only used by the colony's thread
+
+    /**
+     * The Frame class is a copy of the state of the colony after an iteration, it cannot be changed
+     */
+    private static class Frame {
+        private final int iteration; // the iteration after which the copy was made
+        private final SolverResult best; // the shortest path at that time
+        private final double[] pheromones; // the pheromones of the edges to the nearest houses at that time, see AntColony.candidatePheromones
+
+        /**
+         * Create a copy of the state of the colony
+         * @param iteration the iteration after which the copy was made
+         * @param best the shortest path
+         * @param pheromones the pheromones of the edges to the nearest houses
+         */
+        Frame(int iteration, SolverResult best, double[] pheromones) {
+            this.iteration = iteration;
+            this.best = best;
+            this.pheromones = pheromones;
+        }
+    }
+
+    /**
+     * Create a live view and start its drawing thread
+     * @param houses the list of houses
+     * @param intervalMillis the minimum milliseconds between two drawings
+     * @param minFraction an edge is drawn only if its pheromone is at least this fraction of the highest pheromone, 0 to draw all edges
+     * @param maxEdges the maximum number of edges that are drawn, 0 for 5 edges per house. There is always a limit, so that a drawing stays fast
+     */
+    public LiveView(ArrayList<House> houses, long intervalMillis, double minFraction, int maxEdges) {
+        this.houses = houses;
+        this.neighbours = new CandidateLists(houses, NEIGHBOURS);
+        this.intervalNanos = intervalMillis * 1_000_000;
+        this.minFraction = minFraction;
+        this.maxEdges = maxEdges > 0 ? maxEdges : EDGES_PER_HOUSE * houses.size();
+        this.renderThread = new Thread(this::render, "live-view");
+        this.renderThread.setDaemon(true); // the program can end even if the view is not closed
+        this.renderThread.start();
+    }
+
+    /**
+     * Make a copy of the state of the colony if enough time has passed since the last copy
+     * @param colony the colony
+     * @param stats the statistics of the iteration that finished
+     */
+    @Override
+    public void iterationFinished(AntColony colony, IterationStats stats) {
+        long now = System.nanoTime();
+        if(now < nextFrameTime || colony.getBestResult() == null)
+            return;
+        nextFrameTime = now + intervalNanos;
+
+        latestFrame.set(new Frame(stats.getIteration(), colony.getBestResult(), colony.candidatePheromones(neighbours))); // an old copy is replaced
+        LockSupport.unpark(renderThread); // wake the drawing thread if it is waiting
+    }
+
+    /**
+     * Draw the copies until the view is closed
+     */
+    private void render() {
+        Screen.initializeScreen();
+        while(true) {
+            Frame frame = latestFrame.getAndSet(null);
+            if(frame != null)
+                draw(frame);
+            else if(!running)
+                break; // the last copy is drawn
+            else
+                LockSupport.park(this); // wait for the next copy
+        }
+    }
+
+    /**
+     * Draw a copy of the state of the colony
+     * @param frame the copy
+     */
+    private void draw(Frame frame) {
+        StdDraw.clear();
+        StdDraw.setPenColor(StdDraw.LIGHT_GRAY);
+        Screen.showPheromoneIntensities(PheromoneEdges.select(neighbours, frame.pheromones, minFraction, maxEdges), houses);
+        StdDraw.setPenColor(StdDraw.BLACK);
+        Screen.showPath(frame.best.getPath(), houses);
+        Screen.drawHouses(houses, 1);
+        StdDraw.setPenColor(StdDraw.BLACK);
+        StdDraw.textLeft(0.01, 0.98, String.format("Iteration %d, shortest distance %.5f", frame.iteration + 1, frame.best.getDistance()));
+        StdDraw.show();
+    }
+
+    /**
+     * Stop the view after the last copy is drawn
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(renderThread);
+        try {
+            renderThread.join();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,310 @@
+/**
+ * The LocalSearch class improves a tour with 2-opt and Or-opt moves until no move makes the tour shorter.
+ * A 2-opt move removes two edges of the tour and connects the houses again the other way.
+ * An Or-opt move takes one to three consecutive houses out of the tour and puts them between two other houses.
+ * Only moves that create an edge to one of the nearest houses are tried, and a house whose edges did not change
+ * since the last time it was checked is not checked again ("don't look bits").
+ * The same LocalSearch can be used by many threads at the same time.
+ */
+public class LocalSearch {
+    private static final double EPSILON = 1e-10; // a move must make the tour shorter by at least this much
+    private static final int MAX_SEGMENT_LENGTH = 3; // the longest segment an Or-opt move can move
+
+    private final DistanceOracle distances; // distances between the houses
+    private final CandidateLists neighbours; // nearest houses of every house
+
+    /**
+     * Create a local search
+     * @param distances the distances between the houses
+     * @param neighbours the nearest houses of every house
+     */
+    public LocalSearch(DistanceOracle distances, CandidateLists neighbours) {
+        this.distances = distances;
+        this.neighbours = neighbours;
+    }
+
+    /**
+     * Improve the tour until no 2-opt or Or-opt move makes it shorter
+     * @param tour the order of the houses, every house exists once, it is changed in place
+     * @return the length of the improved tour
+     */
+    public double improve(int[] tour) {
+        if(tour.length >= 8) // smaller tours do not have enough room for the moves
+            new Search(tour, tour).run();
+        return tourLength(tour, distances);
+    }
+
+    /**
+     * Improve the tour by checking only some houses at first, which is much faster if the rest of the tour is already good.
+     * A house is checked again only when one of its edges changes, so the improvements spread only as far as they are useful.
+     * @param tour the order of the houses, every house exists once, it is changed in place
+     * @param houses the houses that are checked at first
+     * @return the length of the improved tour
+     */
+    public double improve(int[] tour, int[] houses) {
+        if(tour.length >= 8) // smaller tours do not have enough room for the moves
+            new Search(tour, houses).run();
+        return tourLength(tour, distances);
+    }
+
+    /**
+     * Calculate the length of a closed tour
+     * @param tour the order of the houses
+     * @param distances the distances between the houses
+     * @return the length of the tour including the edge from the last house back to the first house
+     */
+    public static double tourLength(int[] tour, DistanceOracle distances) {
+        double length = 0;
+        for(int i = 1; i < tour.length; i++)
+            length += distances.get(tour[i - 1], tour[i]);
+        return length + distances.get(tour[tour.length - 1], tour[0]);
+    }
+
+    /**
+     * The Search class keeps the data of one call of improve, so that the calls do not share anything
+     */
+    private class Search {
+        private final int n; // number of houses in the tour
+        private final int[] tour; // the tour being improved
+        private final int[] position; // position[house] is the index of the house in the tour
+        private final int[] queue; // houses that will be checked, used as a circular queue
+        private final boolean[] queued; // whether the house is in the queue, which means its don't look bit is off
+        private int head = 0, size = 0; // first element and number of elements of the queue
+
+        /**
+         * Create the data of a search
+         * @param tour the tour being improved
+         * @param houses the houses that are checked at first
+         */
+        Search(int[] tour, int[] houses) {
+            this.n = tour.length;
+            this.tour = tour;
+            this.position = new int[n];
+            this.queue = new int[n];
+            this.queued = new boolean[n];
+            for(int i = 0; i < n; i++)
+                position[tour[i]] = i;
+            for(int house : houses)
+                push(house);
+        }
+
+        /**
+         * Check the houses in the queue until it is empty
+         */
+        void run() {
+            while(size > 0) {
+                int house = queue[head];
+                head = (head + 1) % n;
+                size--;
+                queued[house] = false;
+
+                // if a move is made, the house is checked again, since its new edges may be improved too
+                if(tryTwoOpt(house) || tryOrOpt(house))
+                    push(house);
+            }
+        }
+
+        /**
+         * Add a house to the queue if it is not already there
+         * @param house the house
+         */
+        private void push(int house) {
+            if(queued[house])
+                return;
+            queued[house] = true;
+            queue[(head + size) % n] = house;
+            size++;
+        }
+
+        /**
+         * Get the next house in the tour
+         * @param house the house
+         * @return the house after it
+         */
+        private int next(int house) {
+            return tour[(position[house] + 1) % n];
+        }
+
+        /**
+         * Get the previous house in the tour
+         * @param house the house
+         * @return the house before it
+         */
+        private int previous(int house) {
+            return tour[(position[house] - 1 + n) % n];
+        }
+
+        /**
+         * Get the distance between two houses
+         * @param i the first house
+         * @param j the second house
+         * @return the distance
+         */
+        private double d(int i, int j) {
+            return distances.get(i, j);
+        }
+
+        /**
+         * Try the 2-opt moves that connect the house to one of its nearest houses
+         * @param a the house
+         * @return true if a move is made
+         */
+        private boolean tryTwoOpt(int a) {
+            int[] candidates = neighbours.getCandidates();
+            int start = neighbours.getOffset(a), end = start + neighbours.getCandidateCount();
+
+            for(int direction = 0; direction < 2; direction++) {
+                int b = direction == 0 ? next(a) : previous(a);
+                double removed = d(a, b);
+
+                for(int k = start; k < end; k++) {
+                    int c = candidates[k];
+                    double added = d(a, c);
+                    if(added >= removed)
+                        break; // the candidates are sorted, so the next ones cannot make the tour shorter
+                    int dd = direction == 0 ? next(c) : previous(c);
+                    if(c == b || dd == a)
+                        continue;
+
+                    double gain = removed + d(c, dd) - added - d(b, dd);
+                    if(gain > EPSILON) {
+                        // remove the edges (a, b) and (c, dd), then connect a with c and b with dd
+                        if(direction == 0)
+                            move(a, b, c, dd);
+                        else
+                            move(b, a, dd, c);
+                        push(a); push(b); push(c); push(dd);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Try the Or-opt moves that move a segment starting or ending at the house next to one of the nearest houses of the segment's ends
+         * @param a the house
+         * @return true if a move is made
+         */
+        private boolean tryOrOpt(int a) {
+            for(int length = 1; length <= MAX_SEGMENT_LENGTH; length++) {
+                // segment starting at a
+                int last = a;
+                for(int i = 1; i < length; i++)
+                    last = next(last);
+                if(tryMoveSegment(a, last, length))
+                    return true;
+
+                // segment ending at a
+                int first = a;
+                for(int i = 1; i < length; i++)
+                    first = previous(first);
+                if(length > 1 && tryMoveSegment(first, a, length))
+                    return true;
+            }
+            return false;
+        }
+
+        /**
+         * Try to move the segment from first to last (going forward in the tour) between two adjacent houses near its ends
+         * @param first the first house of the segment
+         * @param last the last house of the segment
+         * @param length the number of houses in the segment
+         * @return true if the segment is moved
+         */
+        private boolean tryMoveSegment(int first, int last, int length) {
+            int before = previous(first), after = next(last);
+
+            // the tour becomes shorter by this much when the segment is taken out
+            double removeGain = d(before, first) + d(last, after) - d(before, after);
+            if(removeGain <= EPSILON)
+                return false;
+
+            int[] candidates = neighbours.getCandidates();
+            for(int end = 0; end < 2; end++) {
+                int endHouse = end == 0 ? first : last;
+                int start = neighbours.getOffset(endHouse), stop = start + neighbours.getCandidateCount();
+
+                for(int k = start; k < stop; k++) {
+                    int c = candidates[k];
+                    if(d(endHouse, c) >= removeGain)
+                        break; // inserting next to a farther house cannot make the tour shorter
+
+                    for(int side = 0; side < 2; side++) {
+                        int x = side == 0 ? c : previous(c); // the segment goes between x and the house after x
+                        int y = next(x);
+                        if(x == before || x == after || x == previous(before) || inSegment(x, first, length))
+                            continue;
+
+                        double reversedCost = d(x, last) + d(first, y) - d(x, y);
+                        double forwardCost = d(x, first) + d(last, y) - d(x, y);
+                        double insertCost = Math.min(reversedCost, forwardCost);
+                        if(removeGain - insertCost > EPSILON) {
+                            // two 2-opt moves put the segment between x and y in the reversed order
+                            move(before, first, x, y);
+                            move(before, x, after, last);
+                            if(forwardCost < reversedCost)
+                                move(x, last, first, y); // turn the segment around
+                            push(before); push(after); push(first); push(last); push(x); push(y);
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Check if a house is in the segment
+         * @param house the house
+         * @param first the first house of the segment
+         * @param length the number of houses in the segment
+         * @return true if the house is in the segment
+         */
+        private boolean inSegment(int house, int first, int length) {
+            return (position[house] - position[first] + n) % n < length;
+        }
+
+        /**
+         * Remove the edges (x1, x2) and (y1, y2), then add the edges (x1, y1) and (x2, y2).
+         * The edges must have the same direction in the tour, so either x2 is after x1 and y2 is after y1,
+         * or x2 is before x1 and y2 is before y1.
+         * @param x1 first house of the first edge
+         * @param x2 second house of the first edge
+         * @param y1 first house of the second edge
+         * @param y2 second house of the second edge
+         */
+        private void move(int x1, int x2, int y1, int y2) {
+            if(next(x1) == x2)
+                reverse(x2, y1); // ... x1 x2 ... y1 y2 ... becomes ... x1 y1 ... x2 y2 ...
+            else
+                reverse(x1, y2); // ... x2 x1 ... y2 y1 ... becomes ... x2 y2 ... x1 y1 ...
+        }
+
+        /**
+         * Reverse the part of the tour from one house forward to another house.
+         * If that part is longer than half of the tour, the rest of the tour is reversed instead, which gives the same edges.
+         * @param from the first house of the part
+         * @param to the last house of the part
+         */
+        private void reverse(int from, int to) {
+            int i = position[from], j = position[to];
+            int length = (j - i + n) % n + 1;
+            if(2 * length > n) {
+                int newI = (j + 1) % n;
+                j = (i - 1 + n) % n;
+                i = newI;
+                length = n - length;
+            }
+            for(int k = 0; k < length / 2; k++) {
+                int first = tour[i], second = tour[j];
+                tour[i] = second;
+                position[second] = i;
+                tour[j] = first;
+                position[first] = j;
+                i = (i + 1) % n;
+                j = (j - 1 + n) % n;
+            }
+        }
+    }
+}
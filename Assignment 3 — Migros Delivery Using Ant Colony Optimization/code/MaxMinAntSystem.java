@@ -0,0 +1,47 @@
+/**
+ * The MaxMinAntSystem class implements the MAX-MIN Ant System.
+ * Only the best ant of each iteration leaves pheromone, and every pheromone is kept between a minimum and a maximum value,
+ * so the ants do not all follow the same path too early.
+ */
+public class MaxMinAntSystem implements PheromoneStrategy {
+    private final double bestProbability; // probability of building the best path again once the pheromones have converged
+
+    /**
+     * Create a MAX-MIN Ant System with the usual probability of 0.05
+     */
+    public MaxMinAntSystem() {
+        this(0.05);
+    }
+
+    /**
+     * Create a MAX-MIN Ant System
+     * @param bestProbability the probability of building the best path again once the pheromones have converged, which sets the minimum pheromone
+     */
+    public MaxMinAntSystem(double bestProbability) {
+        this.bestProbability = bestProbability;
+    }
+
+    @Override
+    public void antFinished(AntColony colony, Ant ant) {
+        // the ants do not leave pheromones one by one
+    }
+
+    @Override
+    public void iterationFinished(AntColony colony, Ant iterationBest) {
+        AntColonyConfig config = colony.getConfig();
+        colony.degradePheromones();
+        iterationBest.updatePheromones(config.getQ() / iterationBest.pathLength); // only the best ant of the iteration leaves pheromone
+
+        // the maximum is the pheromone an edge of the shortest path would reach if it got pheromone in every iteration
+        double max = config.getQ() / ((1 - config.getDegradationFactor()) * colony.getMinDistance());
+
+        // the minimum is chosen so that the best path is built again with bestProbability when all its edges have the maximum
+        int n = colony.numberOfHouses;
+        double min = max / (2 * n);
+        if(n >= 4) {
+            double root = Math.pow(bestProbability, 1.0 / n);
+            min = max * (1 - root) / ((n / 2.0 - 1) * root);
+        }
+        colony.clampPheromones(Math.min(min, max), max);
+    }
+}
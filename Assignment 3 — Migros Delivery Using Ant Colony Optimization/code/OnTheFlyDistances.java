@@ -0,0 +1,35 @@
+/**
+ * The OnTheFlyDistances class calculates every distance from the coordinates of the houses when it is needed.
+ * It uses no memory for the distances, so it can be used for houses that are too many for a matrix.
+ */
+public class OnTheFlyDistances implements DistanceOracle {
+    private final HouseSet houses; // the coordinates of the houses
+
+    /**
+     * Create the distances of the houses
+     * @param houses the coordinates of the houses
+     */
+    public OnTheFlyDistances(HouseSet houses) {
+        this.houses = houses;
+    }
+
+    /**
+     * Get the number of houses
+     * @return the number of houses
+     */
+    @Override
+    public int size() {
+        return houses.size();
+    }
+
+    /**
+     * Calculate the distance between two houses
+     * @param i the first house
+     * @param j the second house
+     * @return the distance
+     */
+    @Override
+    public double get(int i, int j) {
+        return houses.distance(i, j);
+    }
+}
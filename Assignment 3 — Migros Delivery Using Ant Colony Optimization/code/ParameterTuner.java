@@ -0,0 +1,230 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * The ParameterTuner class searches for the constants of the ant colony optimization method that solve some sample problems fastest.
+ * First, the base config solves every sample, and the distance it finds, plus a tolerance, becomes the target of the sample.
+ * Then many random configs race with successive halving: in every round all configs that are left solve all samples at the same time
+ * with a few iterations, the slower half is removed, and the other half gets twice as many iterations in the next round.
+ * A config is faster if it reaches the targets of more samples, and then if it reaches them in less cpu time.
+ * Every solve runs on one thread and its time is the cpu time of that thread, so the configs that run at the same time do not slow each other down in the results.
+ */
+public class ParameterTuner {
+    private static final double MIN_ALPHA = 0.5, MAX_ALPHA = 2; // range of the random alpha values
+    private static final double MIN_BETA = 1, MAX_BETA = 5; // range of the random beta values
+    private static final double MIN_DEGRADATION = 0.5, MAX_DEGRADATION = 0.95; // range of the random pheromone degradation factors
+    private static final double Q_RANGE = 10; // the random Q values are between the Q of the base config divided and multiplied by this
+    private static final int MIN_ANTS = 10; // the smallest random ant count, the largest is twice the ant count of the base config
+
+    private final List<HouseSet> samples; // the sample problems
+    private final AntColonyConfig base; // the config that gives the targets and the constants that are not tuned
+    private final int candidateCount; // the number of configs in the first round, the base config is one of them
+    private final double tolerance; // a target is this fraction longer than the distance found by the base config
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean(); // measures the cpu time of a solve
+
+    /**
+     * Create a tuner
+     * @param samples the sample problems, every sample is a set of houses whose first one is migros
+     * @param base the config whose constants are tuned. Its iteration count is the most iterations a config gets, and its seed chooses the random configs
+     * @param candidateCount the number of configs that are compared
+     * @param tolerance a config reaches a sample if its distance is at most this fraction longer than the distance of the base config, for example 0.01
+     */
+    public ParameterTuner(List<HouseSet> samples, AntColonyConfig base, int candidateCount, double tolerance) {
+        if(samples.isEmpty())
+            throw new IllegalArgumentException("There must be at least one sample");
+        if(candidateCount < 1)
+            throw new IllegalArgumentException("There must be at least one candidate, but the candidate count is " + candidateCount);
+        this.samples = samples;
+        this.base = base.withParallel(false); // the configs are solved in parallel, so every solve uses one thread
+        this.candidateCount = candidateCount;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Find the config that reaches the targets of the samples in the least time
+     * @return the best config, its iteration count is the number of iterations it needed to reach all targets
+     */
+    public AntColonyConfig tune() {
+        // the base config gives the targets
+        double[] targets = IntStream.range(0, samples.size()).parallel()
+                .mapToDouble(s -> new AntColony(base.withSeed(base.getSeed() + s), samples.get(s)).solve().getDistance() * (1 + tolerance))
+                .toArray();
+
+        List<AntColonyConfig> candidates = createCandidates();
+        int rounds = 32 - Integer.numberOfLeadingZeros(candidateCount - 1); // halving candidateCount configs this many times leaves one
+        int budget = Math.max(1, base.getIterationCount() >> rounds);
+        Score best = null;
+
+        while(true) {
+            List<AntColonyConfig> round = new ArrayList<>(candidates.size());
+            for(AntColonyConfig candidate : candidates)
+                round.add(candidate.withAnts(budget, candidate.getAntCount()));
+
+            // solve every sample with every config at the same time
+            Run[] runs = IntStream.range(0, round.size() * samples.size()).parallel()
+                    .mapToObj(k -> run(round.get(k / samples.size()), k % samples.size(), targets[k % samples.size()]))
+                    .toArray(Run[]::new);
+            Score[] scores = new Score[round.size()];
+            for(int c = 0; c < round.size(); c++)
+                scores[c] = new Score(round.get(c), Arrays.copyOfRange(runs, c * samples.size(), (c + 1) * samples.size()));
+            Arrays.sort(scores, Comparator.comparingInt((Score score) -> -score.reached)
+                    .thenComparingLong(score -> score.cpuNanos)
+                    .thenComparingDouble(score -> score.distanceRatio));
+            best = scores[0];
+
+            if(scores.length == 1 || budget >= base.getIterationCount())
+                break;
+            candidates = new ArrayList<>();
+            for(int c = 0; c < (scores.length + 1) / 2; c++) // keep the faster half
+                candidates.add(scores[c].config);
+            budget = Math.min(base.getIterationCount(), budget * 2);
+        }
+        int iterations = best.reached == samples.size() ? best.iterations : base.getIterationCount(); // a config that missed a target gets all iterations
+        return best.config.withAnts(iterations, best.config.getAntCount());
+    }
+
+    /**
+     * Create the configs of the first round, the base config and random configs around it
+     * @return the configs
+     */
+    private List<AntColonyConfig> createCandidates() {
+        SplittableRandom random = new SplittableRandom(base.getSeed());
+        List<AntColonyConfig> candidates = new ArrayList<>(candidateCount);
+        candidates.add(base);
+        while(candidates.size() < candidateCount) {
+            double alpha = random.nextDouble(MIN_ALPHA, MAX_ALPHA);
+            double beta = random.nextDouble(MIN_BETA, MAX_BETA);
+            double degradationFactor = random.nextDouble(MIN_DEGRADATION, MAX_DEGRADATION);
+            double Q = base.getQ() * Math.pow(Q_RANGE, random.nextDouble(-1, 1)); // as likely to be smaller as larger
+            int antCount = random.nextInt(MIN_ANTS, Math.max(MIN_ANTS, 2 * base.getAntCount()) + 1);
+            candidates.add(base.withWeights(alpha, beta).withPheromoneUpdate(degradationFactor, Q).withAnts(base.getIterationCount(), antCount));
+        }
+        return candidates;
+    }
+
+    /**
+     * Solve a sample with a config until the target is reached or the iterations are finished
+     * @param config the config
+     * @param sample the index of the sample
+     * @param target the target distance of the sample
+     * @return the result of the solve
+     */
+    private Run run(AntColonyConfig config, int sample, double target) {
+        AntColony colony = new AntColony(config.withSeed(base.getSeed() + sample), samples.get(sample));
+        Run run = new Run();
+        long start = cpuTime();
+        colony.addImprovementListener((iteration, best) -> {
+            if(best.getDistance() <= target && !run.reached) {
+                run.reached = true;
+                run.iterations = iteration + 1;
+                colony.stop(); // the time after the target does not count
+            }
+        });
+        run.distanceRatio = colony.solve().getDistance() / target;
+        run.cpuNanos = cpuTime() - start;
+        if(!run.reached)
+            run.iterations = config.getIterationCount();
+        return run;
+    }
+
+    /**
+     * Get the cpu time of the current thread, or the wall clock time if the jvm cannot measure cpu time
+     * @return the time in nanoseconds
+     */
+    private long cpuTime() {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Write the tuned constants of a config into a properties file, with the names of the constants in BerkSel
+     * @param config the config
+     * @param path the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(AntColonyConfig config, Path path) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("ITERATION_COUNT", String.valueOf(config.getIterationCount()));
+        properties.setProperty("ANT_COUNT", String.valueOf(config.getAntCount()));
+        properties.setProperty("DEGRADATION_FACTOR", String.valueOf(config.getDegradationFactor()));
+        properties.setProperty("ALPHA", String.valueOf(config.getAlpha()));
+        properties.setProperty("BETA", String.valueOf(config.getBeta()));
+        properties.setProperty("Q", String.valueOf(config.getQ()));
+        try(Writer writer = Files.newBufferedWriter(path)) {
+            properties.store(writer, "Tuned ant colony optimization constants");
+        }
+    }
+
+    /**
+     * Read the tuned constants written by write, the constants that are missing from the file are taken from the base config
+     * @param base the config whose constants are replaced
+     * @param path the path of the file
+     * @return the config with the tuned constants
+     * @throws IOException if the file cannot be read
+     */
+    public static AntColonyConfig read(AntColonyConfig base, Path path) throws IOException {
+        Properties properties = new Properties();
+        try(Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        try {
+            return base.withAnts(Integer.parseInt(properties.getProperty("ITERATION_COUNT", String.valueOf(base.getIterationCount()))),
+                            Integer.parseInt(properties.getProperty("ANT_COUNT", String.valueOf(base.getAntCount()))))
+                    .withPheromoneUpdate(Double.parseDouble(properties.getProperty("DEGRADATION_FACTOR", String.valueOf(base.getDegradationFactor()))),
+                            Double.parseDouble(properties.getProperty("Q", String.valueOf(base.getQ()))))
+                    .withWeights(Double.parseDouble(properties.getProperty("ALPHA", String.valueOf(base.getAlpha()))),
+                            Double.parseDouble(properties.getProperty("BETA", String.valueOf(base.getBeta()))));
+        } catch(NumberFormatException e) {
+            throw new IOException("The tuned constants file " + path + " has a value that is not a number", e);
+        }
+    }
+
+    /**
+     * The result of one solve of a sample
+     */
+    private static class Run {
+        private boolean reached; // whether the target was reached
+        private int iterations; // the iterations until the target was reached, or all iterations if it was not reached
+        private long cpuNanos; // the cpu time of the solve
+        private double distanceRatio; // the distance found divided by the target
+    }
+
+    /**
+     * The results of a config on all samples
+     */
+    private static class Score {
+        private final AntColonyConfig config; // the config
+        private int reached; // the number of samples whose target was reached
+        private int iterations; // the most iterations needed to reach a target
+        private long cpuNanos; // the total cpu time of the solves
+        private double distanceRatio; // the mean of the distances divided by the targets
+
+        /**
+         * Add up the results of a config
+         * @param config the config
+         * @param runs the result of every sample
+         */
+        private Score(AntColonyConfig config, Run[] runs) {
+            this.config = config;
+            for(Run run : runs) {
+                if(run.reached) {
+                    reached++;
+                    iterations = Math.max(iterations, run.iterations);
+                }
+                cpuNanos += run.cpuNanos;
+                distanceRatio += run.distanceRatio / runs.length;
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/**
+ * The PheromoneEdges class keeps the edges with the highest pheromones, sorted from the highest pheromone to the lowest.
+ * Drawing all n * (n - 1) / 2 edges is slow for many houses and most of them are too thin to be seen,
+ * so only the edges whose pheromone is close enough to the highest pheromone, or only the strongest ones, are kept.
+ * An object of this class cannot be changed, so it can be given to another thread to be drawn.
+ */
+public class PheromoneEdges {
+    private final int[] first; // first[k] is the first house of the k-th edge
+    private final int[] second; // second[k] is the second house of the k-th edge
+    private final double[] pheromones; // pheromones[k] is the pheromone of the k-th edge
+
+    /**
+     * Create the edges from the arrays, the arrays are not copied
+     * @param first the first houses of the edges
+     * @param second the second houses of the edges
+     * @param pheromones the pheromones of the edges
+     */
+    private PheromoneEdges(int[] first, int[] second, double[] pheromones) {
+        this.first = first;
+        this.second = second;
+        this.pheromones = pheromones;
+    }
+
+    /**
+     * Find the strongest edges of a pheromone matrix. With a limit, the edges are collected in a heap of the limit's size,
+     * so the matrix is read once and nothing bigger than the limit is allocated or sorted.
+     * @param matrix the pheromone matrix
+     * @param scale the real pheromone of an edge is the value in the matrix times this scale
+     * @param minFraction an edge is kept only if its pheromone is at least this fraction of the highest pheromone, 0 to keep all edges
+     * @param maxEdges the maximum number of edges that are kept, 0 for no limit
+     * @return the edges, sorted from the highest pheromone to the lowest
+     */
+    public static PheromoneEdges select(SymmetricMatrix matrix, double scale, double minFraction, int maxEdges) {
+        int n = matrix.size();
+        double threshold = 0;
+        if(minFraction > 0) {
+            double max = 0;
+            for(int i = 0; i < n; i++)
+                for(int j = 0; j < i; j++)
+                    max = Math.max(max, matrix.get(i, j));
+            threshold = max * minFraction;
+        }
+
+        int capacity; // the most edges that can be kept
+        if(maxEdges > 0)
+            capacity = (int) Math.min(maxEdges, (long) n * (n - 1) / 2);
+        else { // without a limit, every edge above the threshold is kept
+            capacity = 0;
+            for(int i = 0; i < n; i++)
+                for(int j = 0; j < i; j++)
+                    if(matrix.get(i, j) >= threshold)
+                        capacity++;
+        }
+
+        // keep the strongest edges in a min-heap, the weakest kept edge is at the root and is replaced by a stronger one
+        double[] heapValues = new double[capacity];
+        long[] heapEdges = new long[capacity]; // the two houses of an edge packed into one long, the first house in the upper half
+        int size = 0;
+        for(int i = 0; i < n; i++)
+            for(int j = 0; j < i; j++) {
+                double pheromone = matrix.get(i, j);
+                if(pheromone >= threshold)
+                    size = offer(heapValues, heapEdges, size, pheromone, (long) i << 32 | j);
+            }
+        return fromHeap(heapValues, heapEdges, size, scale);
+    }
+
+    /**
+     * Find the strongest edges among the edges from every house to its nearest houses, whose pheromones were copied by
+     * AntColony.candidatePheromones. The strong edges of a colony almost always join near houses, so this finds the same edges
+     * as the whole matrix in most cases, but the copy has only n * k pheromones.
+     * @param neighbours the nearest houses of every house
+     * @param sample the real pheromone of the edge from every house to each of its nearest houses, in the order of neighbours.getCandidates()
+     * @param minFraction an edge is kept only if its pheromone is at least this fraction of the highest pheromone in the sample, 0 to keep all edges
+     * @param maxEdges the maximum number of edges that are kept, 0 for no limit
+     * @return the edges, sorted from the highest pheromone to the lowest
+     */
+    public static PheromoneEdges select(CandidateLists neighbours, double[] sample, double minFraction, int maxEdges) {
+        int[] candidates = neighbours.getCandidates();
+        int k = neighbours.getCandidateCount();
+        int n = k == 0 ? 0 : candidates.length / k;
+        double threshold = 0;
+        if(minFraction > 0) {
+            double max = 0;
+            for(double pheromone : sample)
+                max = Math.max(max, pheromone);
+            threshold = max * minFraction;
+        }
+
+        int capacity = 0; // every edge above the threshold fits, an edge that is in both lists of its houses is counted once
+        for(int i = 0; i < n; i++)
+            for(int c = neighbours.getOffset(i); c < neighbours.getOffset(i) + k; c++)
+                if(sample[c] >= threshold && isFirstEntry(neighbours, i, candidates[c]))
+                    capacity++;
+        if(maxEdges > 0)
+            capacity = Math.min(capacity, maxEdges);
+
+        double[] heapValues = new double[capacity];
+        long[] heapEdges = new long[capacity];
+        int size = 0;
+        for(int i = 0; i < n; i++)
+            for(int c = neighbours.getOffset(i); c < neighbours.getOffset(i) + k; c++) {
+                int j = candidates[c];
+                if(sample[c] >= threshold && isFirstEntry(neighbours, i, j))
+                    size = offer(heapValues, heapEdges, size, sample[c], (long) Math.max(i, j) << 32 | Math.min(i, j));
+            }
+        return fromHeap(heapValues, heapEdges, size, 1);
+    }
+
+    /**
+     * Check if an entry of the candidate lists is the one that stands for its edge. The edge between i and j is in the list of i,
+     * in the list of j, or in both, and it is taken from the list of i if j is not its house's neighbour back or if i is the larger house.
+     * @param neighbours the nearest houses of every house
+     * @param i the house whose list has the entry
+     * @param j the candidate of the entry
+     * @return true if the edge is taken from this entry
+     */
+    private static boolean isFirstEntry(CandidateLists neighbours, int i, int j) {
+        if(i > j)
+            return true;
+        int[] candidates = neighbours.getCandidates();
+        for(int c = neighbours.getOffset(j); c < neighbours.getOffset(j) + neighbours.getCandidateCount(); c++)
+            if(candidates[c] == i)
+                return false; // the edge is taken from the list of j
+        return true;
+    }
+
+    /**
+     * Add an edge to the heap if it is not full, or replace the weakest edge if the new edge is stronger
+     * @param values the pheromones of the edges in the heap
+     * @param edges the packed houses of the edges in the heap
+     * @param size the number of edges in the heap
+     * @param pheromone the pheromone of the new edge
+     * @param edge the packed houses of the new edge
+     * @return the new number of edges in the heap
+     */
+    private static int offer(double[] values, long[] edges, int size, double pheromone, long edge) {
+        if(size < values.length) {
+            values[size] = pheromone;
+            edges[size] = edge;
+            siftUp(values, edges, size);
+            return size + 1;
+        }
+        if(size > 0 && pheromone > values[0]) {
+            values[0] = pheromone;
+            edges[0] = edge;
+            siftDown(values, edges, 0, size);
+        }
+        return size;
+    }
+
+    /**
+     * Take the weakest edge out of the heap until it is empty, so the edges are filled from the end
+     * @param values the pheromones of the edges in the heap
+     * @param edges the packed houses of the edges in the heap
+     * @param size the number of edges in the heap
+     * @param scale the real pheromone of an edge is its value in the heap times this scale
+     * @return the edges, sorted from the highest pheromone to the lowest
+     */
+    private static PheromoneEdges fromHeap(double[] values, long[] edges, int size, double scale) {
+        int[] first = new int[size], second = new int[size];
+        double[] pheromones = new double[size];
+        for(int k = size - 1; k >= 0; k--) {
+            first[k] = (int) (edges[0] >>> 32);
+            second[k] = (int) edges[0];
+            pheromones[k] = values[0] * scale;
+            values[0] = values[k];
+            edges[0] = edges[k];
+            siftDown(values, edges, 0, k);
+        }
+        return new PheromoneEdges(first, second, pheromones);
+    }
+
+    /**
+     * Move an edge of the heap up until its parent is not stronger
+     * @param values the pheromones of the edges in the heap
+     * @param edges the packed houses of the edges in the heap
+     * @param k the index of the edge
+     */
+    private static void siftUp(double[] values, long[] edges, int k) {
+        while(k > 0) {
+            int parent = (k - 1) >>> 1;
+            if(values[parent] <= values[k])
+                return;
+            swap(values, edges, parent, k);
+            k = parent;
+        }
+    }
+
+    /**
+     * Move an edge of the heap down until its children are not weaker
+     * @param values the pheromones of the edges in the heap
+     * @param edges the packed houses of the edges in the heap
+     * @param k the index of the edge
+     * @param size the number of edges in the heap
+     */
+    private static void siftDown(double[] values, long[] edges, int k, int size) {
+        while(true) {
+            int child = 2 * k + 1;
+            if(child >= size)
+                return;
+            if(child + 1 < size && values[child + 1] < values[child])
+                child++; // the weaker child
+            if(values[k] <= values[child])
+                return;
+            swap(values, edges, k, child);
+            k = child;
+        }
+    }
+
+    /**
+     * Swap two edges of the heap
+     * @param values the pheromones of the edges in the heap
+     * @param edges the packed houses of the edges in the heap
+     * @param a the index of the first edge
+     * @param b the index of the second edge
+     */
+    private static void swap(double[] values, long[] edges, int a, int b) {
+        double value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+        long edge = edges[a];
+        edges[a] = edges[b];
+        edges[b] = edge;
+    }
+
+    /**
+     * Get the number of edges
+     * @return the number of edges
+     */
+    public int size() {
+        return first.length;
+    }
+
+    /**
+     * Get the first house of an edge
+     * @param k the index of the edge
+     * @return the index of the first house
+     */
+    public int getFirst(int k) {
+        return first[k];
+    }
+
+    /**
+     * Get the second house of an edge
+     * @param k the index of the edge
+     * @return the index of the second house
+     */
+    public int getSecond(int k) {
+        return second[k];
+    }
+
+    /**
+     * Get the pheromone of an edge
+     * @param k the index of the edge
+     * @return the real pheromone of the edge
+     */
+    public double getPheromone(int k) {
+        return pheromones[k];
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * The PheromoneStrategy interface decides how the ants leave pheromones and how the pheromones degrade.
+ * Different ant colony optimization methods (Ant System, MAX-MIN Ant System, Ant Colony System) only differ in these rules.
+ * A strategy must not store anything about a colony, so the same strategy can be used by many colonies at the same time.
+ */
+public interface PheromoneStrategy {
+    /**
+     * Get the probability that an ant goes to the house with the best edge value instead of choosing randomly
+     * @return the probability between 0 and 1
+     */
+    default double getExploitation() {
+        return 0; // the ants always choose randomly unless the strategy says otherwise
+    }
+
+    /**
+     * Called when an ant finished its travel and its path is compared with the shortest path.
+     * In the parallel mode, this is called for the ants one by one in their order after all of them finished.
+     * @param colony the colony of the ant
+     * @param ant the ant that finished
+     */
+    void antFinished(AntColony colony, Ant ant);
+
+    /**
+     * Called when the local search improved the path of the best ant of the iteration, before iterationFinished.
+     * A strategy that lets every ant leave pheromone can reward the improved path here. The other strategies already use
+     * the improved path in iterationFinished, and antFinished may not be a deposit, so nothing is done by default.
+     * @param colony the colony
+     * @param iterationBest the ant with the shortest path in the iteration, with its improved path
+     */
+    default void bestImproved(AntColony colony, Ant iterationBest) {
+    }
+
+    /**
+     * Called after all ants of an iteration finished
+     * @param colony the colony
+     * @param iterationBest the ant with the shortest path in the iteration
+     */
+    void iterationFinished(AntColony colony, Ant iterationBest);
+}
@@ -0,0 +1,40 @@
+/**
+ * The ScalarDistanceKernel class calculates the distances one by one, it is used when the vector kernel is not available
+ */
+public class ScalarDistanceKernel implements DistanceKernel {
+    /**
+     * Calculate the distances from one house to a range of houses
+     * @param xs the x coordinates of the houses
+     * @param ys the y coordinates of the houses
+     * @param from the index of the house
+     * @param row the array that gets the distances, row[j] is the distance from the house to house j
+     * @param start the index of the first house of the range
+     * @param end the index after the last house of the range
+     */
+    @Override
+    public void fillRow(double[] xs, double[] ys, int from, double[] row, int start, int end) {
+        double x = xs[from], y = ys[from];
+        for(int j = start; j < end; j++) {
+            double dx = xs[j] - x, dy = ys[j] - y;
+            row[j] = Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+
+    /**
+     * Calculate the length of a closed tour
+     * @param xs the x coordinates of the houses
+     * @param ys the y coordinates of the houses
+     * @param tour the order of the houses
+     * @return the length of the tour including the edge from the last house back to the first house
+     */
+    @Override
+    public double tourLength(double[] xs, double[] ys, int[] tour) {
+        double length = 0;
+        for(int k = 0; k < tour.length; k++) {
+            int i = tour[k], j = tour[k + 1 == tour.length ? 0 : k + 1];
+            double dx = xs[j] - xs[i], dy = ys[j] - ys[i];
+            length += Math.sqrt(dx * dx + dy * dy);
+        }
+        return length;
+    }
+}
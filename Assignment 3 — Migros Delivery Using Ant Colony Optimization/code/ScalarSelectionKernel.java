@@ -0,0 +1,26 @@
+/**
+ * The ScalarSelectionKernel class adds up the values one by one, it is used when the vector kernel is not available.
+ * Only the set bits are visited, so the visited houses cost nothing.
+ */
+public class ScalarSelectionKernel implements SelectionKernel {
+    /**
+     * Add up the values of the unvisited houses of a row, 64 houses at a time
+     * @param values the array that contains the row
+     * @param offset the index of the value of house 0 in the array
+     * @param unvisited bit i % 64 of unvisited[i / 64] is set if house i is not visited, there are no bits after the last house
+     * @param prefixSums the array that gets the prefix sums, prefixSums[w] is the sum of the unvisited houses from 0 to 64 * w + 63
+     * @return the sum of the values of all unvisited houses
+     */
+    @Override
+    public double prefixSums(double[] values, int offset, long[] unvisited, double[] prefixSums) {
+        double total = 0;
+        for(int w = 0; w < unvisited.length; w++) {
+            double sum = 0;
+            for(long bits = unvisited[w]; bits != 0; bits &= bits - 1) // remove the lowest set bit after every house
+                sum += values[offset + (w << 6) + Long.numberOfTrailingZeros(bits)];
+            total += sum;
+            prefixSums[w] = total;
+        }
+        return total;
+    }
+}
@@ -1,9 +1,12 @@
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The Screen class is responsible for drawing the houses, the path and the pheromone intensities on the screen
  */
 public class Screen {
+    private static final double PEN_RADIUS_STEP = 0.0005; // pen radii are rounded to this, which changes the line width by less than a pixel on the screen
+
     /**
      * Initializes the screen
      */
@@ -45,7 +48,7 @@ public class Screen {
      * @param shortestPath the order of the houses to visit
      * @param houses array list of houses
      */
-    public static void showPath(ArrayList<Integer> shortestPath, ArrayList<House> houses) {
+    public static void showPath(List<Integer> shortestPath, ArrayList<House> houses) {
         StdDraw.setPenRadius(0.002); // set the pen radius to 0.002 for the lines
         for(int i = 1; i < shortestPath.size(); i++) {
             House previousHouse = houses.get(shortestPath.get(i-1) - 1); // get the previous house
@@ -64,19 +67,20 @@ public class Screen {
     }
 
     /**
-     * Shows the pheromone intensities on the screen for every edge
-     * @param pheromones pheromone intensities
+     * Shows the pheromone intensities on the screen for the given edges.
+     * The edges are sorted by their pheromones, so the pen radius is only changed when it becomes visibly thinner.
+     * @param edges the edges with their pheromone intensities
      * @param houses array list of houses
      */
-    public static void showPheromoneIntensities(double[][] pheromones, ArrayList<House> houses) {
-        for(int i = 0; i < pheromones.length; i++) {
-            for(int j = i + 1; j < pheromones.length; j++) {
-                House firstCity = houses.get(i); // get the first house
-                House secondCity = houses.get(j); // get the second house
-                double pheromoneLevel = pheromones[i][j]; // get the pheromone level
-                StdDraw.setPenRadius(pheromoneLevel * 2.0); // set the pen radius according to the pheromone level
-                drawLine(firstCity, secondCity); // draw the line between the two houses
+    public static void showPheromoneIntensities(PheromoneEdges edges, ArrayList<House> houses) {
+        double penRadius = -1; // the current pen radius
+        for(int k = 0; k < edges.size(); k++) {
+            double radius = Math.round(edges.getPheromone(k) * 2.0 / PEN_RADIUS_STEP) * PEN_RADIUS_STEP; // the pen radius according to the pheromone level
+            if(radius != penRadius) {
+                StdDraw.setPenRadius(radius);
+                penRadius = radius;
             }
+            drawLine(houses.get(edges.getFirst(k)), houses.get(edges.getSecond(k))); // draw the line between the two houses
         }
     }
 }
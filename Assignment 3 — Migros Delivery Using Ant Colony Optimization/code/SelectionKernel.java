@@ -0,0 +1,16 @@
+/**
+ * The SelectionKernel interface adds up the edge values of the unvisited houses of a row, which is most of the work of an ant.
+ * The unvisited houses are given as a bitmask, one long for every 64 houses, so the kernel does not need a branch for every house.
+ * Ant uses the vector kernel if it is compiled and the jdk.incubator.vector module is added, and the scalar kernel otherwise.
+ */
+public interface SelectionKernel {
+    /**
+     * Add up the values of the unvisited houses of a row, 64 houses at a time
+     * @param values the array that contains the row
+     * @param offset the index of the value of house 0 in the array
+     * @param unvisited bit i % 64 of unvisited[i / 64] is set if house i is not visited, there are no bits after the last house
+     * @param prefixSums the array that gets the prefix sums, prefixSums[w] is the sum of the unvisited houses from 0 to 64 * w + 63
+     * @return the sum of the values of all unvisited houses
+     */
+    double prefixSums(double[] values, int offset, long[] unvisited, double[] prefixSums);
+}
@@ -0,0 +1,129 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The SolverResult class stores the shortest path found by a method and its distance.
+ * A result cannot be changed after it is created.
+ */
+public class SolverResult {
+    private final String method; // name of the method that found the path
+    private final double distance; // distance of the path
+    private final List<Integer> path; // house numbers in the order of the path, starting and ending at migros
+
+    /**
+     * Create a result
+     * @param method the name of the method
+     * @param distance the distance of the path
+     * @param path the house numbers in the order of the path, starting and ending at migros
+     */
+    public SolverResult(String method, double distance, List<Integer> path) {
+        this.method = method;
+        this.distance = distance;
+        this.path = Collections.unmodifiableList(new ArrayList<>(path));
+    }
+
+    /**
+     * Create a result from a closed tour that may start at any house
+     * @param method the name of the method
+     * @param distance the distance of the tour
+     * @param tour the indices of the houses in the order of the tour, the first house is repeated at the end
+     * @return the result whose path starts and ends at migros
+     */
+    public static SolverResult fromTour(String method, double distance, List<Integer> tour) {
+        ArrayList<Integer> path = new ArrayList<>();
+
+        // we stored the index of the houses in the tour, so we need to add 1 to get the house numbers
+        for(int i = 0; i < tour.size() - 1; i++) // the last house is skipped since it exists twice (first and last)
+            path.add(tour.get(i) + 1);
+
+        // adjust the permutation to start at migros
+        while(path.getFirst() != 1) { // while the first house is not migros, remove the last house and add it to the beginning of the permutation
+            int last = path.removeLast();
+            path.addFirst(last);
+        }
+
+        // the path starts at migros now, but we need to add migros again to the end.
+        path.add(1);
+        return new SolverResult(method, distance, path);
+    }
+
+    /**
+     * Create a result from a closed tour of house indices that may start at any house, without boxing the tour first
+     * @param method the name of the method
+     * @param distance the distance of the tour
+     * @param tour the indices of the houses in the order of the tour, the first house is repeated at the end
+     * @return the result whose path starts and ends at migros
+     */
+    public static SolverResult fromTour(String method, double distance, int[] tour) {
+        int m = tour.length - 1; // the last house is skipped since it exists twice (first and last)
+        int start = 0;
+        while(start < m && tour[start] != 0)
+            start++; // find migros, so that the path can start there
+
+        ArrayList<Integer> path = new ArrayList<>(tour.length);
+        for(int i = 0; i < m; i++)
+            path.add(tour[(start + i) % m] + 1); // we stored the index of the houses in the tour, so we need to add 1 to get the house numbers
+        path.add(1); // return to migros
+        return new SolverResult(method, distance, path);
+    }
+
+    /**
+     * Get the name of the method
+     * @return the name of the method
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Get the distance of the path
+     * @return the distance of the path
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * Get the house numbers in the order of the path
+     * @return the path starting and ending at migros
+     */
+    public List<Integer> getPath() {
+        return path;
+    }
+
+    /**
+     * Print the result to the console
+     * @param time the time it takes to find the shortest path
+     */
+    public void printResults(double time) {
+        System.out.println("Method: " + method);
+        System.out.printf("Shortest distance: %.5f\n", distance);
+        System.out.println("Shortest path: " + path);
+        System.out.printf("Time it takes to find the shortest path: %.2f seconds\n", time);
+    }
+
+    /**
+     * Show the path on the screen
+     * @param houses the list of houses
+     */
+    public void showThePath(ArrayList<House> houses) {
+        Screen.initializeScreen(); // initialize the canvas
+        Screen.showPath(path, houses); // show the path on the screen
+        Screen.drawHouses(houses, 1); // draw the houses on the screen with orange migros
+        StdDraw.show();
+    }
+
+    /**
+     * Save the path as a png file, which does not need a screen
+     * @param houses the list of houses
+     * @param file the png file
+     * @param size the width and height of the image in pixels
+     * @throws IOException if the file cannot be written
+     */
+    public void savePathImage(ArrayList<House> houses, File file, int size) throws IOException {
+        ImageRenderer.writePng(ImageRenderer.drawPath(path, houses, size), file);
+    }
+}
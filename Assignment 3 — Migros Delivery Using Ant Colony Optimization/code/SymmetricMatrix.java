@@ -0,0 +1,49 @@
+/**
+ * The SymmetricMatrix interface is implemented by the matrices whose value at [i][j] is always the same as the value at [j][i],
+ * such as the distance, pheromone and edge value matrices of the ant colony.
+ * The implementations store the values in flat arrays instead of an array of arrays.
+ * A distance matrix is also the fastest DistanceOracle.
+ */
+public interface SymmetricMatrix extends DistanceOracle {
+    int FULL = 1; // every value is stored twice in an n * n array, rows can be read fastest
+    int TRIANGULAR = 2; // only the lower half is stored, which uses about half of the memory
+    int FLOAT_TRIANGULAR = 3; // only the lower half is stored with float precision, which uses about a quarter of the memory
+
+    /**
+     * Create a matrix with the given storage
+     * @param storage FULL, TRIANGULAR or FLOAT_TRIANGULAR
+     * @param size the number of rows and columns
+     * @return the matrix with all values 0
+     */
+    static SymmetricMatrix create(int storage, int size) {
+        if(storage == FULL)
+            return new FullMatrix(size);
+        else if(storage == TRIANGULAR)
+            return new TriangularMatrix(size);
+        else if(storage == FLOAT_TRIANGULAR)
+            return new FloatTriangularMatrix(size);
+        throw new IllegalArgumentException("Unknown matrix storage: " + storage);
+    }
+
+    /**
+     * Get the number of rows and columns
+     * @return the size of the matrix
+     */
+    int size();
+
+    /**
+     * Get the value at [i][j], which is the same as the value at [j][i]
+     * @param i the row
+     * @param j the column
+     * @return the value
+     */
+    double get(int i, int j);
+
+    /**
+     * Set the value at [i][j] and [j][i]
+     * @param i the row
+     * @param j the column
+     * @param value the new value
+     */
+    void set(int i, int j, double value);
+}
@@ -0,0 +1,162 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The Telemetry class records the statistics of every iteration of a colony, so that the constants can be tuned with real numbers.
+ * Besides the path lengths and the times measured by the colony, it records how many bytes all threads allocated per second,
+ * and the branching factor of the pheromones if it is asked to, since calculating it looks at all edges.
+ * The records can be saved as a csv or a json file.
+ */
+public class Telemetry implements IterationListener {
+    private final boolean branchingFactor; // whether the branching factor is calculated after every iteration
+    private final com.sun.management.ThreadMXBean threads; // counts the allocated bytes, null if the jvm cannot do it
+    private final List<Record> records = new ArrayList<>(); // the records of the iterations
+    private long lastAllocatedBytes; // the allocated bytes at the end of the previous iteration
+    private long lastTime; // the time at the end of the previous iteration
+
+    /**
+     * The Record class stores the statistics of one iteration and the values measured by the telemetry
+     */
+    private static class Record {
+        private final IterationStats stats; // the statistics measured by the colony
+        private final double branchingFactor; // the branching factor of the pheromones, NaN if it is not calculated
+        private final double allocationRate; // bytes allocated per second by all threads, NaN if it is not known
+
+        /**
+         * Create a record
+         * @param stats the statistics measured by the colony
+         * @param branchingFactor the branching factor of the pheromones
+         * @param allocationRate bytes allocated per second by all threads
+         */
+        Record(IterationStats stats, double branchingFactor, double allocationRate) {
+            this.stats = stats;
+            this.branchingFactor = branchingFactor;
+            this.allocationRate = allocationRate;
+        }
+    }
+
+    /**
+     * Create a telemetry, it should be added to a colony right before the solve starts
+     * @param branchingFactor true to calculate the branching factor after every iteration
+     */
+    public Telemetry(boolean branchingFactor) {
+        this.branchingFactor = branchingFactor;
+        this.threads = createThreadBean();
+        this.lastAllocatedBytes = allocatedBytes();
+        this.lastTime = System.nanoTime();
+    }
+
+    /**
+     * Get the thread bean of the jvm if it can count the allocated bytes of all threads
+     * @return the thread bean, or null
+     */
+    private static com.sun.management.ThreadMXBean createThreadBean() {
+        if(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of bytes allocated by all threads so far
+     * @return the allocated bytes, or -1 if it is not known
+     */
+    private long allocatedBytes() {
+        return threads != null ? threads.getTotalThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Record the statistics of an iteration
+     * @param colony the colony
+     * @param stats the statistics of the iteration that finished
+     */
+    @Override
+    public void iterationFinished(AntColony colony, IterationStats stats) {
+        long now = System.nanoTime();
+        long allocated = allocatedBytes();
+        double allocationRate = Double.NaN;
+        if(allocated >= 0 && lastAllocatedBytes >= 0 && now > lastTime)
+            allocationRate = (allocated - lastAllocatedBytes) * 1e9 / (now - lastTime);
+        lastAllocatedBytes = allocated;
+        lastTime = now;
+
+        records.add(new Record(stats, branchingFactor ? colony.branchingFactor() : Double.NaN, allocationRate));
+    }
+
+    /**
+     * Get the number of recorded iterations
+     * @return the number of records
+     */
+    public int size() {
+        return records.size();
+    }
+
+    /**
+     * Save the records as a csv file if the name ends with .csv, and as a json file otherwise
+     * @param file the file
+     * @throws FileNotFoundException if the file cannot be created
+     */
+    public void write(File file) throws FileNotFoundException {
+        if(file.getName().toLowerCase(Locale.ROOT).endsWith(".csv"))
+            writeCsv(file);
+        else
+            writeJson(file);
+    }
+
+    /**
+     * Save the records as a csv file with one line for every iteration, the times are in milliseconds
+     * @param file the csv file
+     * @throws FileNotFoundException if the file cannot be created
+     */
+    public void writeCsv(File file) throws FileNotFoundException {
+        try(PrintWriter writer = new PrintWriter(file)) {
+            writer.println("iteration,bestDistance,iterationBestDistance,meanDistance,wallMs,constructionMs,depositMs,evaporationMs,branchingFactor,allocationBytesPerSecond");
+            for(Record record : records) {
+                IterationStats stats = record.stats;
+                writer.println(String.format(Locale.ROOT, "%d,%.6f,%.6f,%.6f,%.3f,%.3f,%.3f,%.3f,%s,%s",
+                        stats.getIteration(), stats.getBestDistance(), stats.getIterationBestDistance(), stats.getMeanDistance(),
+                        stats.getWallNanos() / 1e6, stats.getConstructionNanos() / 1e6, stats.getDepositNanos() / 1e6, stats.getEvaporationNanos() / 1e6,
+                        format(record.branchingFactor, ""), format(record.allocationRate, "")));
+            }
+        }
+    }
+
+    /**
+     * Save the records as a json array with one object for every iteration, the times are in milliseconds
+     * @param file the json file
+     * @throws FileNotFoundException if the file cannot be created
+     */
+    public void writeJson(File file) throws FileNotFoundException {
+        try(PrintWriter writer = new PrintWriter(file)) {
+            writer.println("[");
+            for(int i = 0; i < records.size(); i++) {
+                Record record = records.get(i);
+                IterationStats stats = record.stats;
+                writer.print(String.format(Locale.ROOT, "  {\"iteration\": %d, \"bestDistance\": %.6f, \"iterationBestDistance\": %.6f, \"meanDistance\": %.6f, "
+                                + "\"wallMs\": %.3f, \"constructionMs\": %.3f, \"depositMs\": %.3f, \"evaporationMs\": %.3f, "
+                                + "\"branchingFactor\": %s, \"allocationBytesPerSecond\": %s}",
+                        stats.getIteration(), stats.getBestDistance(), stats.getIterationBestDistance(), stats.getMeanDistance(),
+                        stats.getWallNanos() / 1e6, stats.getConstructionNanos() / 1e6, stats.getDepositNanos() / 1e6, stats.getEvaporationNanos() / 1e6,
+                        format(record.branchingFactor, "null"), format(record.allocationRate, "null")));
+                writer.println(i + 1 < records.size() ? "," : "");
+            }
+            writer.println("]");
+        }
+    }
+
+    /**
+     * Format a value that may not be known
+     * @param value the value, NaN if it is not known
+     * @param unknown the text used if the value is not known
+     * @return the text of the value
+     */
+    private static String format(double value, String unknown) {
+        return Double.isNaN(value) ? unknown : String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * The TriangularMatrix class stores only the lower half of a symmetric matrix (including the diagonal) in one flat array.
+ * Row i is stored from index i * (i + 1) / 2, so the value at [i][j] is found at the same place as the value at [j][i].
+ */
+public class TriangularMatrix implements SymmetricMatrix {
+    private final int size; // number of rows and columns
+    private final double[] values; // the value at [i][j] with j <= i is stored at index i * (i + 1) / 2 + j
+
+    /**
+     * Create a matrix with all values 0
+     * @param size the number of rows and columns
+     */
+    public TriangularMatrix(int size) {
+        this.size = size;
+        this.values = new double[length(size)];
+    }
+
+    /**
+     * Find the length of the array that stores the lower half of the matrix
+     * @param size the number of rows and columns
+     * @return the length of the array
+     */
+    static int length(int size) {
+        long length = (long) size * (size + 1) / 2;
+        if(length > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Matrix is too large for triangular storage: " + size);
+        return (int) length;
+    }
+
+    /**
+     * Find the index of the value at [i][j] in the array
+     * @param i the row
+     * @param j the column
+     * @return the index of the value
+     */
+    static int index(int i, int j) {
+        if(j > i) // the upper half is not stored, use [j][i] instead
+            return (int) ((long) j * (j + 1) / 2) + i;
+        return (int) ((long) i * (i + 1) / 2) + j;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return values[index(i, j)];
+    }
+
+    @Override
+    public void set(int i, int j, double value) {
+        values[index(i, j)] = value;
+    }
+}
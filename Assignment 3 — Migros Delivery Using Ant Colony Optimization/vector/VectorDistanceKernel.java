@@ -0,0 +1,61 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The VectorDistanceKernel class calculates several distances with one instruction using the vector api.
+ * It needs the jdk.incubator.vector module, so it is compiled and run with --add-modules jdk.incubator.vector.
+ * HouseSet loads it by its name, so the code can still be compiled and run without it.
+ */
+public class VectorDistanceKernel implements DistanceKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED; // the widest vector the cpu supports
+
+    /**
+     * Calculate the distances from one house to a range of houses, the houses after the last full vector are calculated one by one
+     * @param xs the x coordinates of the houses
+     * @param ys the y coordinates of the houses
+     * @param from the index of the house
+     * @param row the array that gets the distances, row[j] is the distance from the house to house j
+     * @param start the index of the first house of the range
+     * @param end the index after the last house of the range
+     */
+    @Override
+    public void fillRow(double[] xs, double[] ys, int from, double[] row, int start, int end) {
+        double x = xs[from], y = ys[from];
+        int j = start;
+        for(; j + SPECIES.length() <= end; j += SPECIES.length()) {
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, xs, j).sub(x);
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, ys, j).sub(y);
+            dx.mul(dx).add(dy.mul(dy)).lanewise(VectorOperators.SQRT).intoArray(row, j);
+        }
+        for(; j < end; j++) {
+            double dx = xs[j] - x, dy = ys[j] - y;
+            row[j] = Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+
+    /**
+     * Calculate the length of a closed tour, the coordinates of the houses are gathered in the order of the tour
+     * @param xs the x coordinates of the houses
+     * @param ys the y coordinates of the houses
+     * @param tour the order of the houses
+     * @return the length of the tour including the edge from the last house back to the first house
+     */
+    @Override
+    public double tourLength(double[] xs, double[] ys, int[] tour) {
+        DoubleVector sum = DoubleVector.zero(SPECIES);
+        int k = 0;
+        for(; k + SPECIES.length() < tour.length; k += SPECIES.length()) { // the edges from tour[k] to tour[k + 1]
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, xs, 0, tour, k + 1).sub(DoubleVector.fromArray(SPECIES, xs, 0, tour, k));
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, ys, 0, tour, k + 1).sub(DoubleVector.fromArray(SPECIES, ys, 0, tour, k));
+            sum = sum.add(dx.mul(dx).add(dy.mul(dy)).lanewise(VectorOperators.SQRT));
+        }
+        double length = sum.reduceLanes(VectorOperators.ADD);
+        for(; k < tour.length; k++) {
+            int i = tour[k], j = tour[k + 1 == tour.length ? 0 : k + 1];
+            double dx = xs[j] - xs[i], dy = ys[j] - ys[i];
+            length += Math.sqrt(dx * dx + dy * dy);
+        }
+        return length;
+    }
+}
@@ -0,0 +1,49 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The VectorSelectionKernel class adds up several values with one instruction using the vector api.
+ * The bits of the unvisited houses are used directly as the mask of the vector lanes, so the visited houses are added as 0 without a branch.
+ * It needs the jdk.incubator.vector module, so it is compiled and run with --add-modules jdk.incubator.vector.
+ * Ant loads it by its name, so the code can still be compiled and run without it.
+ */
+public class VectorSelectionKernel implements SelectionKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED; // the widest vector the cpu supports, 64 is a multiple of its length
+
+    /**
+     * Add up the values of the unvisited houses of a row, 64 houses at a time.
+     * A block of 64 houses without unvisited houses is skipped, and a block without visited houses is loaded without a mask.
+     * @param values the array that contains the row
+     * @param offset the index of the value of house 0 in the array
+     * @param unvisited bit i % 64 of unvisited[i / 64] is set if house i is not visited, there are no bits after the last house
+     * @param prefixSums the array that gets the prefix sums, prefixSums[w] is the sum of the unvisited houses from 0 to 64 * w + 63
+     * @return the sum of the values of all unvisited houses
+     */
+    @Override
+    public double prefixSums(double[] values, int offset, long[] unvisited, double[] prefixSums) {
+        int lanes = SPECIES.length();
+        double total = 0;
+        for(int w = 0; w < unvisited.length; w++) {
+            long bits = unvisited[w];
+            if(bits != 0) {
+                int start = offset + (w << 6);
+                DoubleVector sum = DoubleVector.zero(SPECIES);
+                if(bits == -1L) { // all 64 houses are unvisited
+                    for(int k = 0; k < 64; k += lanes)
+                        sum = sum.add(DoubleVector.fromArray(SPECIES, values, start + k));
+                }
+                else {
+                    for(int k = 0; k < 64 && (bits >>> k) != 0; k += lanes) {
+                        VectorMask<Double> mask = VectorMask.fromLong(SPECIES, bits >>> k); // the lowest bits are the lanes
+                        sum = sum.add(DoubleVector.fromArray(SPECIES, values, start + k, mask)); // the masked lanes are not read, so the row may end here
+                    }
+                }
+                total += sum.reduceLanes(VectorOperators.ADD);
+            }
+            prefixSums[w] = total;
+        }
+        return total;
+    }
+}